@@ -0,0 +1,102 @@
+package com.gathergrid.gathergridfeatures.benchmark;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.listener.CatalogListener;
+import com.gathergrid.gathergridfeatures.listener.KnownEmailsListener;
+import com.gathergrid.gathergridfeatures.listener.SearchIndexListener;
+import com.gathergrid.gathergridfeatures.service.PasswordHasher;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The data every benchmark runs against, seeded once per fork into the in-memory database:
+ * {@code gathergrid.bench.events} upcoming events (2000 by default) over five categories, each
+ * with a VIP and a standard ticket and a few comments. The search index, event catalog and
+ * known emails are then loaded by their listeners, as on a real startup.
+ * <p>
+ * JMH only creates this state in forks whose benchmark asks for it, so every benchmark that
+ * touches the database takes it as a parameter, even when it does not read it.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+    static final String PASSWORD = "benchmark-password";
+    static final String[] CATEGORIES = {"Music", "Sport", "Theatre", "Conference", "Festival"};
+    private static final String[] WORDS = {"jazz", "night", "marathon", "summit", "open", "air", "classic",
+            "rock", "comedy", "workshop", "gala", "derby", "opera", "street", "food"};
+
+    final int eventCount = Integer.getInteger("gathergrid.bench.events", 2000);
+    final List<Long> eventIds = new ArrayList<>();
+    final List<Long> categoryIds = new ArrayList<>();
+    User member;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        String hashed = PasswordHasher.getInstance().hash(PASSWORD);
+        member = new User("bench", "member", "bench.member@gmail.com", hashed);
+        User organizer = new User("bench", "organizer", "bench.organizer@gmail.com", hashed);
+        EntityManagerUtil.runInTransaction(em -> {
+            em.persist(member);
+            em.persist(organizer);
+            List<Category> categories = new ArrayList<>();
+            for (String name : CATEGORIES) {
+                Category category = new Category(name);
+                em.persist(category);
+                categories.add(category);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < eventCount; i++) {
+                String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+                Event event = new Event(name, now.plusHours(i + 1), "street " + (i % 97), "the " + name + " of the year");
+                event.setCategory(categories.get(i % categories.size()));
+                event.setOrganizer(organizer);
+                // enough seats that the reservation benchmark never sells out
+                event.addTicket(new Ticket(100, 10_000_000, TicketType.VIP));
+                event.addTicket(new Ticket(50, 10_000_000, TicketType.STANDARD));
+                em.persist(event);
+                for (int c = 0; c < 3; c++) {
+                    Comment comment = new Comment("comment " + c + " on " + name, 1 + (i + c) % 10);
+                    comment.setEvent(event);
+                    comment.setUser(member);
+                    em.persist(comment);
+                }
+                if (i % 200 == 0) {
+                    em.flush();
+                    // users and categories become detached, which is fine for the many-to-one references
+                    em.clear();
+                }
+            }
+        });
+        EntityManagerUtil.closeEntityManager();
+        EntityManagerUtil.runInTransaction(em -> {
+            eventIds.addAll(em.createQuery("SELECT e.id FROM Event e ORDER BY e.id", Long.class).getResultList());
+            categoryIds.addAll(em.createQuery("SELECT c.id FROM Category c ORDER BY c.id", Long.class).getResultList());
+        });
+        EntityManagerUtil.closeEntityManager();
+
+        new SearchIndexListener().contextInitialized(null);
+        new CatalogListener().contextInitialized(null);
+        new KnownEmailsListener().contextInitialized(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        PasswordHasher.getInstance().shutdown();
+    }
+
+    long eventId(int i) {
+        return eventIds.get(Math.floorMod(i, eventIds.size()));
+    }
+}
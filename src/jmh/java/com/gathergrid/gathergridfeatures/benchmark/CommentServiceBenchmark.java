@@ -0,0 +1,42 @@
+package com.gathergrid.gathergridfeatures.benchmark;
+
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
+import com.gathergrid.gathergridfeatures.service.CommentService;
+import com.gathergrid.gathergridfeatures.service.EventService;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Writing a comment synchronously and reading the first page of an event's comments. */
+@State(Scope.Thread)
+public class CommentServiceBenchmark {
+    private final EventService eventService = new EventService();
+    private final CommentService commentService = new CommentService(new CommentRepositryImpl(), eventService);
+    private int next;
+
+    @Benchmark
+    public Comment createComment(BenchmarkData data) {
+        try {
+            Event event = eventService.findById(data.eventId(next++));
+            Comment comment = new Comment("a benchmark comment", 1 + next % 10);
+            comment.setEvent(event);
+            comment.setUser(data.member);
+            return commentService.createComment(comment);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+
+    @Benchmark
+    public Page<Comment> listComments(BenchmarkData data) {
+        try {
+            return commentService.ListComment(data.eventId(next++), null);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+}
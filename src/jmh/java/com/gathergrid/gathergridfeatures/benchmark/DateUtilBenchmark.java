@@ -0,0 +1,19 @@
+package com.gathergrid.gathergridfeatures.benchmark;
+
+import com.gathergrid.gathergridfeatures.utils.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+
+/** Formatting the event date shown on every card of the listing. */
+@State(Scope.Thread)
+public class DateUtilBenchmark {
+    private final LocalDateTime date = LocalDateTime.of(2024, 6, 21, 20, 30);
+
+    @Benchmark
+    public String getDate() {
+        return DateUtil.getDate(date);
+    }
+}
@@ -0,0 +1,44 @@
+package com.gathergrid.gathergridfeatures.benchmark;
+
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.service.EventService;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** The /event listing: the first page, a text search and a category filter. */
+@State(Scope.Thread)
+public class EventServiceBenchmark {
+    private final EventService eventService = new EventService();
+    private int next;
+
+    @Benchmark
+    public Page<EventSummary> firstPage(BenchmarkData data) {
+        try {
+            return eventService.filterEvents("", "", "", "", null);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+
+    @Benchmark
+    public Page<EventSummary> search(BenchmarkData data) {
+        try {
+            return eventService.filterEvents("", "", "jazz night", "", null);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+
+    @Benchmark
+    public Page<EventSummary> byCategory(BenchmarkData data) {
+        String categoryId = String.valueOf(data.categoryIds.get(next++ % data.categoryIds.size()));
+        try {
+            return eventService.filterEvents("", "", "", categoryId, null);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+}
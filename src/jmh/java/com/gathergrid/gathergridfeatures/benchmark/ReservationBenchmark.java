@@ -0,0 +1,39 @@
+package com.gathergrid.gathergridfeatures.benchmark;
+
+import com.gathergrid.gathergridfeatures.domain.Reservation;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.service.ReservationService;
+import com.gathergrid.gathergridfeatures.service.TicketService;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The work behind /reservation in {@code pagesServlet.ValidationReservation}: load the event's
+ * tickets, then book one VIP and two standard seats. Rendering the page is left out.
+ */
+@State(Scope.Thread)
+public class ReservationBenchmark {
+    private final TicketService ticketService = new TicketService();
+    private final ReservationService reservationService = new ReservationService();
+    private int next;
+
+    @Benchmark
+    public List<Reservation> reserve(BenchmarkData data) {
+        try {
+            List<Ticket> tickets = ticketService.findAllEventTickets(data.eventId(next++));
+            Map<Ticket, Integer> quantities = new LinkedHashMap<>();
+            for (Ticket ticket : tickets) {
+                quantities.put(ticket, ticket.getType().name().equals("VIP") ? 1 : 2);
+            }
+            return reservationService.reserve(data.member, quantities);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+}
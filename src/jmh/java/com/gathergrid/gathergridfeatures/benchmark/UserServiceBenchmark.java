@@ -0,0 +1,37 @@
+package com.gathergrid.gathergridfeatures.benchmark;
+
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.service.UserService;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Optional;
+
+/**
+ * Sign-in: a correct password, which costs a full BCrypt check at {@code gathergrid.hash.cost},
+ * and an unknown email, which the known-emails filter turns away without a query.
+ */
+@State(Scope.Thread)
+public class UserServiceBenchmark {
+    private final UserService userService = new UserService();
+
+    @Benchmark
+    public Optional<User> checkEmail(BenchmarkData data) {
+        try {
+            return userService.CheckEmail(new User(null, null, "bench.member@gmail.com", BenchmarkData.PASSWORD));
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+
+    @Benchmark
+    public Optional<User> checkUnknownEmail(BenchmarkData data) {
+        try {
+            return userService.CheckEmail(new User(null, null, "nobody@gmail.com", BenchmarkData.PASSWORD));
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+}
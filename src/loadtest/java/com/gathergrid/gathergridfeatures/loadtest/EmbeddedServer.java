@@ -0,0 +1,52 @@
+package com.gathergrid.gathergridfeatures.loadtest;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.WebResourceRoot;
+import org.apache.catalina.loader.WebappLoader;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.catalina.webresources.DirResourceSet;
+import org.apache.catalina.webresources.StandardRoot;
+
+import java.io.File;
+
+/**
+ * Tomcat 10.1 with Jasper serving src/main/webapp and target/classes, the way the WAR is laid out.
+ * The web application loads its classes from the harness's class path first, so the harness and
+ * the application share one copy of EntityManagerUtil and the other singletons: data seeded
+ * before start is what the startup listeners index, and the checks afterwards read the same
+ * database and inventory the requests wrote to.
+ */
+class EmbeddedServer {
+    private final Tomcat tomcat = new Tomcat();
+
+    EmbeddedServer(int port, int maxThreads) {
+        tomcat.setBaseDir(new File("target/loadtest-tomcat").getAbsolutePath());
+        tomcat.setPort(port);
+        tomcat.getConnector().setProperty("maxThreads", String.valueOf(maxThreads));
+        tomcat.getConnector().setProperty("acceptCount", "1000");
+    }
+
+    void start() throws LifecycleException {
+        Context context = tomcat.addWebapp("", new File("src/main/webapp").getAbsolutePath());
+        // mounted so the @WebServlet, @WebFilter and @WebListener classes are found by the scan
+        WebResourceRoot resources = new StandardRoot(context);
+        resources.addPreResources(new DirResourceSet(resources, "/WEB-INF/classes",
+                new File("target/classes").getAbsolutePath(), "/"));
+        context.setResources(resources);
+        context.setParentClassLoader(EmbeddedServer.class.getClassLoader());
+        WebappLoader loader = new WebappLoader();
+        loader.setDelegate(true);
+        context.setLoader(loader);
+        tomcat.start();
+    }
+
+    int getPort() {
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    void stop() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
@@ -0,0 +1,50 @@
+package com.gathergrid.gathergridfeatures.loadtest;
+
+import java.util.Arrays;
+
+/** Exact latencies of one worker thread; merged and sorted once the run is over. */
+class LatencyRecorder {
+    private long[] nanos = new long[4096];
+    private int size;
+    final int[] statusClasses = new int[6];
+    int failures;
+
+    void record(long latency, int status) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latency;
+        statusClasses[status / 100]++;
+    }
+
+    void fail(long latency) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latency;
+        failures++;
+    }
+
+    static long[] sorted(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.nanos, 0, all, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    static double percentileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+}
@@ -0,0 +1,253 @@
+package com.gathergrid.gathergridfeatures.loadtest;
+
+import com.gathergrid.gathergridfeatures.service.TicketInventory;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application in an embedded Tomcat against the in-memory database, seeds it and runs
+ * a mix of virtual users for a fixed time. Each workload reports its throughput, status codes and
+ * latency percentiles; the flash sale is then checked against the database: no ticket sold more
+ * seats than it had, every sold seat has its reservation, and every successful booking wrote
+ * exactly its seats.
+ * <p>
+ * Run with {@code mvn -P loadtest verify -DskipTests}; the {@code gathergrid.loadtest.*} properties
+ * set the mix ({@code users}, as {@code search=20,detail=20,reservation=40,signin=10}), the
+ * {@code durationSeconds} measured after {@code warmupSeconds}, the number of {@code events} and
+ * {@code flashEvents}, and the {@code flashVip} and {@code flashStandard} seats of each flash
+ * event. The report is also written to {@code target/loadtest-report.json}. The process exits
+ * with 1 when a check fails.
+ */
+public class LoadTest {
+    private static final String SUCCESS = "Reservation has been Successfully";
+
+    private final Map<Workload, Integer> mix;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final Map<Workload, List<LatencyRecorder>> recorders = new EnumMap<>(Workload.class);
+    private final AtomicLong bookings = new AtomicLong();
+    private final AtomicLong refusedSignIns = new AtomicLong();
+
+    LoadTest(Map<Workload, Integer> mix, long warmupSeconds, long durationSeconds) {
+        this.mix = mix;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<Workload, Integer> mix = parseMix(System.getProperty("gathergrid.loadtest.users",
+                "search=20,detail=20,reservation=40,signin=10"));
+        int users = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+        Seeder seeder = new Seeder();
+        long seedStart = System.nanoTime();
+        seeder.seed(Integer.getInteger("gathergrid.loadtest.events", 1000),
+                Integer.getInteger("gathergrid.loadtest.flashEvents", 5),
+                Integer.getInteger("gathergrid.loadtest.flashVip", 20),
+                Integer.getInteger("gathergrid.loadtest.flashStandard", 50),
+                users);
+        System.out.printf("Seeded %d events (%d flash sales) and %d users in %d ms%n", seeder.eventIds.size(),
+                seeder.flashEventIds.size(), users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+        EmbeddedServer server = new EmbeddedServer(Integer.getInteger("gathergrid.loadtest.port", 0),
+                Integer.getInteger("gathergrid.loadtest.maxThreads", 200));
+        server.start();
+        boolean passed;
+        try {
+            LoadTest test = new LoadTest(mix, Long.getLong("gathergrid.loadtest.warmupSeconds", 5),
+                    Long.getLong("gathergrid.loadtest.durationSeconds", 30));
+            test.run("http://localhost:" + server.getPort(), seeder);
+            passed = test.report(seeder, Path.of("target", "loadtest-report.json"));
+        } finally {
+            server.stop();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    void run(String baseUrl, Seeder seeder) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        int users = mix.values().stream().mapToInt(Integer::intValue).sum();
+        CountDownLatch ready = new CountDownLatch(users);
+        long[] start = new long[1];
+        CountDownLatch go = new CountDownLatch(1);
+        int index = 0;
+        for (Map.Entry<Workload, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                Workload workload = entry.getKey();
+                VirtualUser user = new VirtualUser(baseUrl, seeder.emails.get(index++), seeder.eventIds, seeder.flashEventIds);
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.computeIfAbsent(workload, w -> new ArrayList<>()).add(recorder);
+                Thread thread = new Thread(() -> {
+                    try {
+                        if (workload == Workload.RESERVATION && !user.signIn()) {
+                            throw new IllegalStateException(user.getEmail() + " could not sign in");
+                        }
+                        ready.countDown();
+                        go.await();
+                        loop(workload, user, recorder, start[0]);
+                    } catch (IOException | InterruptedException | RuntimeException e) {
+                        System.err.println(workload + " user stopped: " + e);
+                        ready.countDown();
+                    }
+                }, "loadtest-" + workload.name().toLowerCase(Locale.ROOT) + "-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+        ready.await();
+        start[0] = System.nanoTime();
+        go.countDown();
+        System.out.printf("Running %d users: %ds warm-up, %ds measured%n", users,
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void loop(Workload workload, VirtualUser user, LatencyRecorder recorder, long start)
+            throws InterruptedException {
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            boolean measured = now >= measureFrom;
+            HttpResponse<String> response;
+            try {
+                response = user.send(workload.next(user));
+            } catch (IOException e) {
+                if (measured) {
+                    recorder.fail(System.nanoTime() - now);
+                }
+                continue;
+            }
+            long latency = System.nanoTime() - now;
+            // bookings count during the warm-up too, the correctness checks cover the whole run
+            if (workload == Workload.RESERVATION && response.body().contains(SUCCESS)) {
+                bookings.incrementAndGet();
+            }
+            if (measured) {
+                recorder.record(latency, response.statusCode());
+                if (workload == Workload.SIGNIN && response.statusCode() == 503) {
+                    refusedSignIns.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    boolean report(Seeder seeder, Path file) throws IOException {
+        double seconds = durationNanos / 1e9;
+        StringBuilder json = new StringBuilder("{\n  \"durationSeconds\": ").append(seconds).append(",\n  \"workloads\": {");
+        System.out.printf("%n%-12s %8s %9s %8s %8s %8s %8s %6s %6s %6s %6s%n", "workload", "requests", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "max ms", "2xx", "3xx", "4xx", "5xx");
+        String separator = "";
+        for (Map.Entry<Workload, List<LatencyRecorder>> entry : recorders.entrySet()) {
+            long[] sorted = LatencyRecorder.sorted(entry.getValue());
+            int[] classes = new int[6];
+            int failures = 0;
+            for (LatencyRecorder recorder : entry.getValue()) {
+                for (int i = 0; i < classes.length; i++) {
+                    classes[i] += recorder.statusClasses[i];
+                }
+                failures += recorder.failures;
+            }
+            double p50 = LatencyRecorder.percentileMillis(sorted, 0.50);
+            double p90 = LatencyRecorder.percentileMillis(sorted, 0.90);
+            double p99 = LatencyRecorder.percentileMillis(sorted, 0.99);
+            double max = LatencyRecorder.percentileMillis(sorted, 1.0);
+            String name = entry.getKey().name().toLowerCase(Locale.ROOT);
+            System.out.printf(Locale.ROOT, "%-12s %8d %9.1f %8.1f %8.1f %8.1f %8.1f %6d %6d %6d %6d%s%n", name,
+                    sorted.length, sorted.length / seconds, p50, p90, p99, max, classes[2], classes[3], classes[4],
+                    classes[5], failures > 0 ? "  (" + failures + " I/O errors)" : "");
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "%n    \"%s\": {\"users\": %d, \"requests\": %d, \"throughput\": %.1f, \"p50Millis\": %.2f, "
+                            + "\"p90Millis\": %.2f, \"p99Millis\": %.2f, \"maxMillis\": %.2f, \"status2xx\": %d, "
+                            + "\"status3xx\": %d, \"status4xx\": %d, \"status5xx\": %d, \"ioErrors\": %d}",
+                    name, entry.getValue().size(), sorted.length, sorted.length / seconds, p50, p90, p99, max,
+                    classes[2], classes[3], classes[4], classes[5], failures));
+            separator = ",";
+        }
+        System.out.printf("%nBookings: %d, sign-ins turned away with 503: %d%n", bookings.get(), refusedSignIns.get());
+
+        Map<String, Boolean> checks = checkFlashSale(seeder);
+        boolean passed = !checks.containsValue(false);
+        json.append("\n  },\n  \"bookings\": ").append(bookings.get())
+                .append(",\n  \"refusedSignIns\": ").append(refusedSignIns.get())
+                .append(",\n  \"checks\": {");
+        separator = "";
+        for (Map.Entry<String, Boolean> check : checks.entrySet()) {
+            System.out.println((check.getValue() ? "PASS " : "FAIL ") + check.getKey());
+            json.append(separator).append("\n    \"").append(check.getKey().replace("\"", "\\\"")).append("\": ")
+                    .append(check.getValue());
+            separator = ",";
+        }
+        json.append("\n  },\n  \"passed\": ").append(passed).append("\n}\n");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+        System.out.println("Report written to " + file);
+        return passed;
+    }
+
+    /** Compares the flash sale tickets in the database with what they started with and what was booked. */
+    private Map<String, Boolean> checkFlashSale(Seeder seeder) {
+        // seats are taken in memory first, the database is caught up here
+        TicketInventory.getInstance().flush();
+        Map<String, Boolean> checks = new LinkedHashMap<>();
+        long[] seats = new long[1];
+        try {
+            EntityManagerUtil.runInTransaction(em -> {
+                for (Map.Entry<Long, Integer> stock : seeder.flashStock.entrySet()) {
+                    long ticketId = stock.getKey();
+                    int initial = stock.getValue();
+                    long sold = em.createQuery("SELECT COUNT(r) FROM Reservation r WHERE r.ticket.id = :id", Long.class)
+                            .setParameter("id", ticketId)
+                            .getSingleResult();
+                    int available = em.createQuery("SELECT t.quantityAvailable FROM Ticket t WHERE t.id = :id", Integer.class)
+                            .setParameter("id", ticketId)
+                            .getSingleResult();
+                    seats[0] += sold;
+                    checks.put("ticket " + ticketId + " sold " + sold + " of " + initial + " seats", sold <= initial);
+                    checks.put("ticket " + ticketId + " has " + available + " seats left, expected " + (initial - sold),
+                            available == initial - sold);
+                }
+            });
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+        // a booking is one VIP and two standard seats
+        checks.put(bookings.get() + " bookings wrote " + seats[0] + " reservations, expected " + bookings.get() * 3,
+                seats[0] == bookings.get() * 3);
+        return checks;
+    }
+
+    static Map<Workload, Integer> parseMix(String mix) {
+        Map<Workload, Integer> parsed = new EnumMap<>(Workload.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected workload=users, got " + part);
+            }
+            int users = Integer.parseInt(pair[1].trim());
+            if (users > 0) {
+                parsed.put(Workload.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), users);
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("No users in " + mix);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,78 @@
+package com.gathergrid.gathergridfeatures.loadtest;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.service.PasswordHasher;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the in-memory database before the server starts, on top of the seeded reference data:
+ * categories, users sharing one password, and upcoming events with a VIP and a standard ticket
+ * each. The first {@code flashEvents} events are the flash sale, with few seats so reservation
+ * bursts sell them out; the others have plenty.
+ */
+class Seeder {
+    static final String PASSWORD = "loadtest-password";
+    static final String[] WORDS = {"jazz", "night", "marathon", "summit", "open", "air", "classic",
+            "rock", "comedy", "workshop", "gala", "derby", "opera", "street", "food"};
+    // kept apart from the categories seeded with the schema
+    private static final String[] CATEGORIES = {"Theatre", "Conference", "Festival", "Comedy", "Workshop"};
+
+    final List<Long> eventIds = new ArrayList<>();
+    final List<Long> flashEventIds = new ArrayList<>();
+    final List<String> emails = new ArrayList<>();
+    // initial quantityAvailable of every flash sale ticket
+    final Map<Long, Integer> flashStock = new HashMap<>();
+
+    void seed(int eventCount, int flashEvents, int flashVip, int flashStandard, int userCount) {
+        String hashed = PasswordHasher.getInstance().hash(PASSWORD);
+        EntityManagerUtil.runInTransaction(em -> {
+            User organizer = new User("load", "organizer", "load.organizer@gmail.com", hashed);
+            em.persist(organizer);
+            for (int i = 0; i < userCount; i++) {
+                User user = new User("load", "user" + i, "load.user" + i + "@gmail.com", hashed);
+                em.persist(user);
+                emails.add(user.getEmail());
+            }
+            List<Category> categories = new ArrayList<>();
+            for (String name : CATEGORIES) {
+                Category category = new Category(name);
+                em.persist(category);
+                categories.add(category);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < eventCount; i++) {
+                boolean flash = i < flashEvents;
+                String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+                Event event = new Event(name, now.plusHours(i + 1), "street " + (i % 97), "the " + name + " of the year");
+                event.setCategory(categories.get(i % categories.size()));
+                event.setOrganizer(organizer);
+                event.addTicket(new Ticket(100, flash ? flashVip : 1_000_000, TicketType.VIP));
+                event.addTicket(new Ticket(50, flash ? flashStandard : 1_000_000, TicketType.STANDARD));
+                em.persist(event);
+                if (i % 200 == 0) {
+                    em.flush();
+                }
+            }
+        });
+        EntityManagerUtil.closeEntityManager();
+        EntityManagerUtil.runInTransaction(em -> {
+            eventIds.addAll(em.createQuery("SELECT e.id FROM Event e ORDER BY e.id", Long.class).getResultList());
+            flashEventIds.addAll(eventIds.subList(0, Math.min(flashEvents, eventIds.size())));
+            em.createQuery("SELECT t FROM Ticket t WHERE t.event.id IN :ids", Ticket.class)
+                    .setParameter("ids", flashEventIds)
+                    .getResultList()
+                    .forEach(ticket -> flashStock.put(ticket.getId(), ticket.getQuantityAvailable()));
+        });
+        EntityManagerUtil.closeEntityManager();
+    }
+}
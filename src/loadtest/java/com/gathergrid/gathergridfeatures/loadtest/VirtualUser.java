@@ -0,0 +1,67 @@
+package com.gathergrid.gathergridfeatures.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** One browser: its own cookies, hence its own session, and redirects left to the caller. */
+class VirtualUser {
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final String email;
+    private final List<Long> eventIds;
+    private final List<Long> flashEventIds;
+    private final HttpClient client;
+
+    VirtualUser(String baseUrl, String email, List<Long> eventIds, List<Long> flashEventIds) {
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.eventIds = eventIds;
+        this.flashEventIds = flashEventIds;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /** Signs in and keeps the session cookie; false when the server turned the sign-in down. */
+    boolean signIn() throws IOException, InterruptedException {
+        return send(Workload.SIGNIN.next(this)).statusCode() == 302;
+    }
+
+    HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT).GET().build();
+    }
+
+    HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    String getEmail() {
+        return email;
+    }
+
+    long randomEvent() {
+        return eventIds.get(ThreadLocalRandom.current().nextInt(eventIds.size()));
+    }
+
+    long randomFlashEvent() {
+        return flashEventIds.get(ThreadLocalRandom.current().nextInt(flashEventIds.size()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.gathergrid.gathergridfeatures.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** What one virtual user does in a loop; each request it sends is timed separately. */
+enum Workload {
+    /** Filtered listing on /event, by a word of the event names and sometimes a date range. */
+    SEARCH {
+        @Override
+        HttpRequest next(VirtualUser user) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String text = Seeder.WORDS[random.nextInt(Seeder.WORDS.length)];
+            String from = random.nextBoolean() ? "" : LocalDate.now().toString();
+            return user.get("/event?search=1&text=" + text + "&fromdate=" + from + "&todate=&category=");
+        }
+    },
+    /** Event pages on /showEvent, with their tickets, comments and rating. */
+    DETAIL {
+        @Override
+        HttpRequest next(VirtualUser user) {
+            return user.get("/showEvent?id=" + user.randomEvent());
+        }
+    },
+    /** Signed-in users booking one VIP and two standard seats of a flash sale event. */
+    RESERVATION {
+        @Override
+        HttpRequest next(VirtualUser user) {
+            return user.get("/reservation?idEvent=" + user.randomFlashEvent() + "&vip=1&Standard=2");
+        }
+    },
+    /** Sign-ins with the right password, which redirect to the dashboard on success. */
+    SIGNIN {
+        @Override
+        HttpRequest next(VirtualUser user) {
+            return user.post("/auth/signin", "email=" + URLEncoder.encode(user.getEmail(), StandardCharsets.UTF_8)
+                    + "&password=" + URLEncoder.encode(Seeder.PASSWORD, StandardCharsets.UTF_8));
+        }
+    };
+
+    abstract HttpRequest next(VirtualUser user);
+}
@@ -0,0 +1,66 @@
+package com.gathergrid.gathergridfeatures;
+
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.importer.EventImporter;
+import com.gathergrid.gathergridfeatures.importer.ImportFormat;
+import com.gathergrid.gathergridfeatures.importer.ImportReport;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.UserRepository;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Imports events from a CSV or JSON file straight into the database, the same way the {@code
+ * /event/import} page does:
+ * <pre>
+ * mvn compile org.codehaus.mojo:exec-maven-plugin:3.1.0:java -Dexec.classpathScope=compile \
+ *     -Dexec.mainClass=com.gathergrid.gathergridfeatures.EventImport \
+ *     -Dexec.args="events.csv organizer@example.com"
+ * </pre>
+ * The format comes from the file extension unless given as a third argument. Running servers
+ * list the new events in searches after their next restart. Exits with 1 when rows were rejected
+ * and 2 when nothing could be imported.
+ */
+public class EventImport {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: EventImport <file> <organizer email> [csv|json]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        int status;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ImportFormat format = ImportFormat.detect(args.length == 3 ? args[2] : null, file.getFileName().toString());
+            User lookup = new User();
+            lookup.setEmail(args[1]);
+            Optional<User> organizer = new UserRepository<User>().findByEmail(lookup);
+            if (organizer.isEmpty()) {
+                throw new IllegalArgumentException("No user with email " + args[1]);
+            }
+            ImportReport report = new EventImporter().importEvents(reader, format, organizer.get().getId());
+            System.out.printf("%d events imported, %d rows rejected in %d ms%n",
+                    report.getImported(), report.getFailed(), report.getMillis());
+            for (ImportReport.RowError error : report.getErrors()) {
+                System.out.printf("  event %d (line %d): %s%n", error.getRecord(), error.getLine(), error.getMessage());
+            }
+            if (report.isErrorListTruncated()) {
+                System.out.printf("  ... and %d more%n", report.getFailed() - report.getErrors().size());
+            }
+            if (report.getAbortedBecause() != null) {
+                System.out.println("Stopped early: " + report.getAbortedBecause());
+            }
+            status = report.getAbortedBecause() != null && report.getImported() == 0 ? 2 : report.getFailed() > 0 ? 1 : 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            status = 2;
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+        System.exit(status);
+    }
+}
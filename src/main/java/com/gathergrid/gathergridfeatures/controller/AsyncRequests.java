@@ -0,0 +1,129 @@
+package com.gathergrid.gathergridfeatures.controller;
+
+import com.gathergrid.gathergridfeatures.utils.DatabaseExecutor;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves a servlet's work off the container thread. The request is put in asynchronous mode and
+ * the handler runs on the {@link DatabaseExecutor}, which renders the page and completes the
+ * response once the data is loaded. The container thread goes back to its pool at once, so slow
+ * queries no longer use up the connector's threads.
+ * <p>
+ * Forwards and includes run inline, as they are already on a worker. When the executor is full
+ * the request gets a 503 straight away, and one still waiting for a worker after {@code
+ * gathergrid.async.timeoutMillis} is answered with a 503 as well. Once a worker has started on a
+ * request it owns the response until it completes it: the container's own timeout is off, since
+ * it would complete and recycle the response under the worker's feet.
+ */
+public final class AsyncRequests {
+    private static final Logger LOGGER = Logger.getLogger(AsyncRequests.class.getName());
+    private static final long TIMEOUT_MILLIS = Long.getLong("gathergrid.async.timeoutMillis", 30_000);
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final ScheduledThreadPoolExecutor TIMEOUTS = timeouts();
+
+    interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException;
+    }
+
+    private AsyncRequests() {}
+
+    static void dispatch(HttpServletRequest request, HttpServletResponse response, Handler handler)
+            throws ServletException, IOException {
+        dispatch(request, response, DatabaseExecutor.getInstance(), handler);
+    }
+
+    static void dispatch(HttpServletRequest request, HttpServletResponse response, DatabaseExecutor executor,
+                         Handler handler) throws ServletException, IOException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !request.isAsyncSupported() || request.isAsyncStarted()) {
+            handler.handle(request, response);
+            return;
+        }
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(0);
+        // the worker and the timeout both claim the request; only the one that wins touches the response
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        ScheduledFuture<?> timeout = TIMEOUTS.schedule(() -> {
+            if (state.compareAndSet(QUEUED, DONE)) {
+                LOGGER.warning("Request to " + request.getRequestURI() + " waited " + TIMEOUT_MILLIS + " ms for a worker");
+                try {
+                    unavailable(response);
+                } catch (IOException | IllegalStateException ignored) {
+                    // the client is gone, nothing left to tell it
+                }
+                async.complete();
+            }
+        }, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            executor.execute(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return;
+                }
+                timeout.cancel(false);
+                try {
+                    handler.handle(request, response);
+                } catch (Exception e) {
+                    LOGGER.log(Level.SEVERE, "Request to " + request.getRequestURI() + " failed", e);
+                    if (!response.isCommitted()) {
+                        try {
+                            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                        } catch (IOException | IllegalStateException ignored) {
+                            // the client is gone, nothing left to tell it
+                        }
+                    }
+                } finally {
+                    state.set(DONE);
+                    async.complete();
+                }
+            });
+        } catch (IllegalStateException e) {
+            timeout.cancel(false);
+            state.set(DONE);
+            unavailable(response);
+            async.complete();
+        }
+    }
+
+    /**
+     * Stops the timeout thread, dropping the timeouts still pending. Called when the application
+     * stops, after the executors have finished the requests they had queued.
+     */
+    public static void shutdown() {
+        TIMEOUTS.shutdownNow();
+        try {
+            TIMEOUTS.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void unavailable(HttpServletResponse response) throws IOException {
+        if (!response.isCommitted()) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor timeouts() {
+        ScheduledThreadPoolExecutor timeouts = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "async-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timeouts.setRemoveOnCancelPolicy(true);
+        return timeouts;
+    }
+}
@@ -1,20 +1,41 @@
 package com.gathergrid.gathergridfeatures.controller;
 
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
+import com.gathergrid.gathergridfeatures.service.CommentService;
+import com.gathergrid.gathergridfeatures.service.EventService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-@WebServlet(name = "Comment", value = {"/createComment", "/editComment", "/updateComment", "/deleteComment", "/showComment"})
+@WebServlet(name = "Comment", value = {"/createComment", "/editComment", "/updateComment", "/deleteComment", "/showComment"}, asyncSupported = true)
 public class CommentServlet extends HttpServlet {
+    // how long a request waits for its comment to be committed before telling the author it is still saving
+    private static final long COMMIT_WAIT_MILLIS = 2000;
+
+    EventService eventService = new EventService();
+    CommentService commentService = new CommentService(new CommentRepositryImpl(), eventService);
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        AsyncRequests.dispatch(req, resp, this::route);
+    }
+
+    private void route(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String path = req.getServletPath();
         if(path.equals("/createComment") && req.getMethod().equals("POST")){
-
+            createComment(req, resp);
         }else if (path.equals("/updateComment") && req.getMethod().equals("POST")) {
 
         }else if (path.equals("/editComment")){
@@ -32,4 +53,55 @@ public class CommentServlet extends HttpServlet {
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         doGet(req, resp);
     }
+
+    private void createComment(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        HttpSession session = req.getSession();
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            resp.sendRedirect(req.getContextPath() + "/auth/signin");
+            return;
+        }
+        long eventId;
+        int rating;
+        try {
+            eventId = Long.parseLong(req.getParameter("idEvent"));
+            rating = Integer.parseInt(req.getParameter("rating"));
+        } catch (NumberFormatException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        Event event = eventService.findById(eventId);
+        if (event == null) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Comment comment = new Comment(req.getParameter("text") == null ? "" : req.getParameter("text"), rating);
+        comment.setEvent(event);
+        comment.setUser(user);
+        try {
+            CompletableFuture<Comment> committed = commentService.submitComment(comment);
+            PendingComments.of(session).add(comment, committed);
+            committed.get(COMMIT_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            req.setAttribute("message", e.getMessage());
+            req.getRequestDispatcher("/showEvent?id=" + eventId).forward(req, resp);
+            return;
+        } catch (ExecutionException e) {
+            req.setAttribute("message", "Your comment could not be saved, please try again");
+            req.getRequestDispatcher("/showEvent?id=" + eventId).forward(req, resp);
+            return;
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // only in the writer's queue, which a crash loses: not acknowledged as saved. The author
+            // sees it through PendingComments while it waits, and it is gone from there if it fails.
+            resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+            req.setAttribute("message", "Your comment is still being saved. Reload the page in a moment, and post it again if it is not there");
+            req.getRequestDispatcher("/showEvent?id=" + eventId).forward(req, resp);
+            return;
+        }
+        // committed: the comment is in the database
+        resp.sendRedirect(req.getContextPath() + "/showEvent?id=" + eventId);
+    }
 }
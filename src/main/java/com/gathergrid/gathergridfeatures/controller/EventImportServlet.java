@@ -0,0 +1,136 @@
+package com.gathergrid.gathergridfeatures.controller;
+
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.importer.EventImporter;
+import com.gathergrid.gathergridfeatures.importer.ImportFormat;
+import com.gathergrid.gathergridfeatures.importer.ImportReport;
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.MultipartConfig;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.Part;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bulk import of events for the signed-in organizer. The upload form posts the file as {@code
+ * multipart/form-data} and gets the report as a page; scripts can post the file as the body, with
+ * a {@code text/csv} or {@code application/json} content type, and get the report as JSON.
+ * <p>
+ * An import of a large file takes minutes, so it runs on the request thread rather than the
+ * database executor, whose requests time out; at most {@code gathergrid.import.concurrent}
+ * imports run at once and further ones get a 503.
+ */
+@WebServlet("/event/import")
+@MultipartConfig(fileSizeThreshold = 1024 * 1024)
+public class EventImportServlet extends HttpServlet {
+    private final Semaphore running = new Semaphore(Integer.getInteger("gathergrid.import.concurrent", 2));
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (organizer(req) == null) {
+            resp.sendRedirect(req.getContextPath() + "/auth/login");
+            return;
+        }
+        req.setAttribute("url", "/event/import");
+        req.getRequestDispatcher("/WEB-INF/importEvents.jsp").forward(req, resp);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        boolean form = req.getContentType() != null && req.getContentType().startsWith("multipart/");
+        User organizer = organizer(req);
+        if (organizer == null) {
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (!running.tryAcquire()) {
+            resp.setHeader("Retry-After", "60");
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Other imports are running, please try again later");
+            return;
+        }
+        try {
+            ImportReport report;
+            try {
+                report = form ? importPart(req, organizer) : importBody(req, organizer);
+            } catch (IllegalArgumentException e) {
+                if (form) {
+                    req.setAttribute("error", e.getMessage());
+                    doGet(req, resp);
+                } else {
+                    resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+                }
+                return;
+            }
+            if (form) {
+                req.setAttribute("report", report);
+                doGet(req, resp);
+            } else {
+                writeJson(report, resp);
+            }
+        } finally {
+            running.release();
+        }
+    }
+
+    private static ImportReport importPart(HttpServletRequest req, User organizer) throws IOException, ServletException {
+        Part file = req.getPart("file");
+        if (file == null || file.getSize() == 0) {
+            throw new IllegalArgumentException("Choose a CSV or JSON file to import");
+        }
+        ImportFormat format = ImportFormat.detect(req.getParameter("format"), file.getSubmittedFileName(), file.getContentType());
+        try (InputStream in = file.getInputStream()) {
+            return new EventImporter().importEvents(reader(in, StandardCharsets.UTF_8), format, organizer.getId());
+        }
+    }
+
+    private static ImportReport importBody(HttpServletRequest req, User organizer) throws IOException {
+        ImportFormat format = ImportFormat.detect(req.getParameter("format"), req.getContentType());
+        Charset charset = req.getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(req.getCharacterEncoding());
+        return new EventImporter().importEvents(reader(req.getInputStream(), charset), format, organizer.getId());
+    }
+
+    private static BufferedReader reader(InputStream in, Charset charset) {
+        return new BufferedReader(new InputStreamReader(in, charset), 64 * 1024);
+    }
+
+    private static void writeJson(ImportReport report, HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = Json.createGenerator(resp.getWriter())) {
+            json.writeStartObject()
+                    .write("imported", report.getImported())
+                    .write("failed", report.getFailed())
+                    .write("millis", report.getMillis());
+            if (report.getAbortedBecause() != null) {
+                json.write("abortedBecause", report.getAbortedBecause());
+            }
+            json.write("errorsTruncated", report.isErrorListTruncated());
+            json.writeStartArray("errors");
+            for (ImportReport.RowError error : report.getErrors()) {
+                json.writeStartObject()
+                        .write("record", error.getRecord())
+                        .write("line", error.getLine())
+                        .write("message", error.getMessage())
+                        .writeEnd();
+            }
+            json.writeEnd().writeEnd();
+        }
+    }
+
+    private static User organizer(HttpServletRequest req) {
+        HttpSession session = req.getSession(false);
+        return session == null ? null : (User) session.getAttribute("user");
+    }
+}
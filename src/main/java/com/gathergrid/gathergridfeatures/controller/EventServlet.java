@@ -23,18 +23,26 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-@WebServlet(value = {"/event/add", "/event/delete", "/event/update"})
+@WebServlet(value = {"/event/add", "/event/delete", "/event/update"}, asyncSupported = true)
 public class EventServlet extends HttpServlet {
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        AsyncRequests.dispatch(req, resp, this::showForm);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        AsyncRequests.dispatch(req, resp, this::handleAction);
+    }
+
+    private void showForm(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         CategoryService categoryService = new CategoryService();
         List<Category> categories = categoryService.getAllCategories();
         req.setAttribute("categories", categories);
         req.getRequestDispatcher("/WEB-INF/addevent.jsp").forward(req, resp);
     }
 
-    @Override
-    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+    private void handleAction(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         String action = req.getParameter("action");
         switch (action) {
             case "create" -> {
@@ -66,7 +74,8 @@ public class EventServlet extends HttpServlet {
                 if (!errors.isEmpty()) {
                     req.setAttribute("errors", errors);
                     req.setAttribute("message", "error adding event");
-                    this.doGet(req, resp);
+                    showForm(req, resp);
+                    return;
                 }
 
                 try {
@@ -75,7 +84,8 @@ public class EventServlet extends HttpServlet {
                     eventService.createEvent(event, organizerId, tickets, categoryId);
                 } catch (Exception e) {
                     errors.put("server", "internal server error: event was not created");
-                    this.doGet(req, resp);
+                    showForm(req, resp);
+                    return;
                 }
                 resp.sendRedirect(path + "/Dashboard");
             }
@@ -1,35 +1,18 @@
 package com.gathergrid.gathergridfeatures.controller;
 
 
-import com.gathergrid.gathergridfeatures.domain.Category;
-import com.gathergrid.gathergridfeatures.domain.User;
-import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.Persistence;
-import jakarta.servlet.annotation.WebServlet;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
 import jakarta.servlet.http.HttpServlet;
 
-@WebServlet(loadOnStartup = 1)
+/**
+ * Reports how long the deployment took. Servlets loaded on startup are initialised after every
+ * listener has run, so by now the database is migrated and the caches are built. Categories are
+ * seeded with the schema, see {@code DatabaseBootstrap}. Declared in web.xml, since it has no
+ * mapping.
+ */
 public class InitialServlet extends HttpServlet {
     @Override
     public void init() {
-        EntityManager em = EntityManagerUtil.getEntityManager();
-        User user = new User("mohammed", "mohammed", "mohammed@gmail.com", "password");
-        em.getTransaction().begin();
-
-        em.persist(new Category("Music"));
-        em.persist(new Category("Science"));
-        em.persist(new Category("Health"));
-        em.persist(new Category("Sport"));
-        em.persist(new Category("Computer science"));
-        em.persist(new Category("css"));
-        em.persist(new Category("Animals"));
-        em.persist(new Category("Food"));
-        em.persist(new Category("Combat sport"));
-        em.persist(new Category("Islam"));
-        em.persist(user);
-
-        em.getTransaction().commit();
+        StartupTimings.finish();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,13 @@
 package com.gathergrid.gathergridfeatures.controller;
 
 import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.service.PasswordHasher;
 import com.gathergrid.gathergridfeatures.service.UserService;
+import com.gathergrid.gathergridfeatures.utils.DatabaseExecutor;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -44,8 +45,15 @@ public class LoginServlet extends pagesServlet {
         else request.getRequestDispatcher("/WEB-INF/view/404.jsp").forward(request, resp);
 
     }
+    // sign-in and sign-up wait for the hashing pool, so they run off the container thread and off
+    // the workers that render pages
     protected void doPost(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        AsyncRequests.dispatch(request, response, DatabaseExecutor.forSignIns(), this::submit);
+    }
+
+    private void submit(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
         String path = request.getRequestURL().toString();
         if(path.contains("signin")){
             login(request,response);
@@ -67,8 +75,15 @@ public class LoginServlet extends pagesServlet {
             request.getRequestDispatcher("/registration.jsp").forward(request, response);
         } else {
             String message = "";
-            String hashed = hashPassword(password);
-            Optional<User> save = service.save(new User(firstName, lastName, email, hashed));
+            Optional<User> save;
+            try {
+                save = service.save(new User(firstName, lastName, email, hashPassword(password)));
+            } catch (IllegalStateException e) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                request.setAttribute("validationErrors", List.of(e.getMessage()));
+                request.getRequestDispatcher("/registration.jsp").forward(request, response);
+                return;
+            }
             if (save.isPresent()) {
                 message = "User successfully registered.";
                 request.setAttribute("registrationMessage", message);
@@ -94,7 +109,15 @@ public class LoginServlet extends pagesServlet {
         user.setPassword(password);
 
         if(resultValidation.isEmpty()) {
-            Optional<User> user1 = service.CheckEmail(user);
+            Optional<User> user1;
+            try {
+                user1 = service.CheckEmail(user);
+            } catch (IllegalStateException e) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                request.setAttribute("validationEmail", e.getMessage());
+                request.getRequestDispatcher("/login.jsp").forward(request, response);
+                return;
+            }
 
             if (user1.isPresent()) {
                 request.getSession(true).setAttribute("user", user1.get());
@@ -153,6 +176,6 @@ public class LoginServlet extends pagesServlet {
     }
 
     public static String hashPassword(String plainPassword) {
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt());
+        return PasswordHasher.getInstance().hash(plainPassword);
     }
 }
@@ -0,0 +1,23 @@
+package com.gathergrid.gathergridfeatures.controller;
+
+import com.gathergrid.gathergridfeatures.metrics.PrometheusExporter;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/** Prometheus scrape endpoint. Everything is read from in-memory counters; no database access. */
+@WebServlet("/metrics")
+public class MetricsServlet extends HttpServlet {
+    private final PrometheusExporter exporter = new PrometheusExporter();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType(PrometheusExporter.CONTENT_TYPE);
+        resp.setHeader("Cache-Control", "no-store");
+        resp.getWriter().write(exporter.export());
+    }
+}
@@ -0,0 +1,49 @@
+package com.gathergrid.gathergridfeatures.controller;
+
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Comments the session's user submitted that the background writer has not committed yet,
+ * merged into the event page so authors always see their own comment straight away.
+ */
+class PendingComments {
+    private static final String ATTRIBUTE = "pendingComments";
+
+    private final List<Comment> comments = new ArrayList<>();
+    private final List<CompletableFuture<Comment>> commits = new ArrayList<>();
+
+    static PendingComments of(HttpSession session) {
+        synchronized (session) {
+            PendingComments pending = (PendingComments) session.getAttribute(ATTRIBUTE);
+            if (pending == null) {
+                pending = new PendingComments();
+                session.setAttribute(ATTRIBUTE, pending);
+            }
+            return pending;
+        }
+    }
+
+    synchronized void add(Comment comment, CompletableFuture<Comment> committed) {
+        comments.add(comment);
+        commits.add(committed);
+    }
+
+    /** Newest first, like the comment list; committed or failed comments are dropped. */
+    synchronized List<Comment> forEvent(long event_id) {
+        List<Comment> result = new ArrayList<>();
+        for (int i = comments.size() - 1; i >= 0; i--) {
+            if (commits.get(i).isDone()) {
+                comments.remove(i);
+                commits.remove(i);
+            } else if (comments.get(i).getEvent().getId() == event_id) {
+                result.add(comments.get(i));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.gathergrid.gathergridfeatures.controller;
+
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Admin page listing the slowest query shapes recorded by {@link SlowQueryLog}, with the values
+ * last bound to them. Open to signed-in users whose email is listed in {@code
+ * gathergrid.admin.emails} (comma-separated). Requests from the machine itself are let in too
+ * when {@code gathergrid.admin.allowLoopback} is true, which is only safe when no reverse proxy
+ * on the same host forwards outside traffic.
+ */
+@WebServlet("/admin/queries")
+public class SlowQueriesServlet extends HttpServlet {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final Set<String> ADMIN_EMAILS = Arrays.stream(System.getProperty("gathergrid.admin.emails", "").split(","))
+            .map(String::trim)
+            .filter(email -> !email.isEmpty())
+            .map(String::toLowerCase)
+            .collect(Collectors.toSet());
+    private static final boolean ALLOW_LOOPBACK = Boolean.getBoolean("gathergrid.admin.allowLoopback");
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (!isAdmin(req)) {
+            resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        boolean byTotal = "total".equals(req.getParameter("sort"));
+        int limit = DEFAULT_LIMIT;
+        try {
+            limit = Math.max(1, Math.min(200, Integer.parseInt(req.getParameter("limit"))));
+        } catch (NumberFormatException e) {
+            // keep the default
+        }
+        req.setAttribute("url", "/admin/queries");
+        req.setAttribute("shapes", SlowQueryLog.top(limit, byTotal ? SlowQueryLog.BY_TOTAL : SlowQueryLog.BY_MAX));
+        req.setAttribute("sort", byTotal ? "total" : "max");
+        req.setAttribute("thresholdMillis", SlowQueryLog.getThresholdMillis());
+        req.setAttribute("windowMinutes", SlowQueryLog.getWindowMinutes());
+        req.getRequestDispatcher("/WEB-INF/queries.jsp").forward(req, resp);
+    }
+
+    // the only action is clearing the statistics
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (!isAdmin(req)) {
+            resp.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        SlowQueryLog.reset();
+        resp.sendRedirect(req.getContextPath() + "/admin/queries");
+    }
+
+    private static boolean isAdmin(HttpServletRequest req) {
+        if (ALLOW_LOOPBACK) {
+            try {
+                if (InetAddress.getByName(req.getRemoteAddr()).isLoopbackAddress()) {
+                    return true;
+                }
+            } catch (IOException e) {
+                // not an address we can check, fall through to the session
+            }
+        }
+        HttpSession session = req.getSession(false);
+        User user = session == null ? null : (User) session.getAttribute("user");
+        return user != null && user.getEmail() != null && ADMIN_EMAILS.contains(user.getEmail().toLowerCase());
+    }
+}
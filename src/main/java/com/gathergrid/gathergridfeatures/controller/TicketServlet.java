@@ -4,8 +4,6 @@ import com.gathergrid.gathergridfeatures.domain.Ticket;
 import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
 import com.gathergrid.gathergridfeatures.repository.TicketRepository;
 import com.gathergrid.gathergridfeatures.service.TicketService;
-import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -22,7 +20,6 @@ public class TicketServlet extends HttpServlet {
         int quantity = Integer.parseInt(req.getParameter("ticketQuantity"));
         String type = req.getParameter("ticketType");
 
-        EntityManager entityManager = EntityManagerUtil.getEntityManager();
         TicketRepository ticketRepository = new TicketRepository();
         TicketService ticketService = new TicketService();
 
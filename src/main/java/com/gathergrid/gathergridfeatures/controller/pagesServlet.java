@@ -2,32 +2,46 @@ package com.gathergrid.gathergridfeatures.controller;
 
 import java.io.*;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.time.LocalDateTime;
 
 import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.Comment;
 import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
 import com.gathergrid.gathergridfeatures.service.CategoryService;
+import com.gathergrid.gathergridfeatures.service.CommentService;
 import com.gathergrid.gathergridfeatures.service.EventService;
 import com.gathergrid.gathergridfeatures.domain.User;
 import com.gathergrid.gathergridfeatures.domain.Reservation;
 import com.gathergrid.gathergridfeatures.domain.Ticket;
 import com.gathergrid.gathergridfeatures.service.ReservationService;
 import com.gathergrid.gathergridfeatures.service.TicketService;
+import com.gathergrid.gathergridfeatures.utils.Page;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
 import jakarta.servlet.annotation.*;
 
-@WebServlet(name = "helloServlet", value = {"/myBooking", "/event", "/profile", "/Dashboard","/reservation","/showEvent"})
+@WebServlet(name = "helloServlet", value = {"/myBooking", "/event", "/profile", "/Dashboard","/reservation","/showEvent"}, asyncSupported = true)
 public class pagesServlet extends HttpServlet {
 
     TicketService ticketService = new TicketService();
     ReservationService reservationService = new ReservationService();
     EventService eventService = new EventService();
+    CommentService commentService = new CommentService(new CommentRepositryImpl(), eventService);
     public void init() {
     }
-    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException, ServletException {
+    public void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
+        AsyncRequests.dispatch(request, response, this::showPage);
+    }
+
+    private void showPage(HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
         String path = request.getServletPath();
         EventService eventService = new EventService();
         CategoryService categoryService = new CategoryService();
@@ -40,9 +54,12 @@ public class pagesServlet extends HttpServlet {
             case "/event":
                 request.setAttribute("url","/events");
                 List<Category> categories = categoryService.getAllCategories();
-                List<Event> events = getFiltredEvents(request, response);
+                Page<EventSummary> events = getFiltredEvents(request, response);
 //                List<Event> events = eventService.getAll();
-                request.setAttribute("events", events);
+                request.setAttribute("events", events.getItems());
+                request.setAttribute("ratings", commentService.getRatings(
+                        events.getItems().stream().map(EventSummary::getId).collect(Collectors.toList())));
+                request.setAttribute("nextCursor", events.getNextCursor());
                 request.setAttribute("categories", categories);
                 this.getServletContext().getRequestDispatcher("/WEB-INF/events.jsp").forward(request, response);
                 break;
@@ -53,8 +70,9 @@ public class pagesServlet extends HttpServlet {
             case "/Dashboard":
                 request.setAttribute("url","/Dashboard");
 //                User user = (User) session.getAttribute("user");
-                List<Event> listEvent = eventService.fetchAllEventOfUser(1L);
-                request.setAttribute("listEvent",listEvent);
+                Page<Event> listEvent = eventService.fetchAllEventOfUser(1L, request.getParameter("cursor"));
+                request.setAttribute("listEvent",listEvent.getItems());
+                request.setAttribute("nextCursor",listEvent.getNextCursor());
                 List<Category> listCategory = categoryService.getAllCategories();
                 request.setAttribute("listCategory",listCategory);
                 this.getServletContext().getRequestDispatcher("/WEB-INF/homeUser.jsp").forward(request, response);
@@ -71,6 +89,18 @@ public class pagesServlet extends HttpServlet {
                 int idEvent = parseAndValidate(Id);
                 Event event = eventService.findById(idEvent);
                 request.setAttribute("event",event);
+                if (event != null) {
+                    Page<Comment> comments = commentService.ListComment(event.getId(), request.getParameter("cursor"));
+                    List<Comment> shown = new ArrayList<>();
+                    HttpSession session = request.getSession(false);
+                    if (session != null && request.getParameter("cursor") == null) {
+                        shown.addAll(PendingComments.of(session).forEvent(event.getId()));
+                    }
+                    shown.addAll(comments.getItems());
+                    request.setAttribute("comments", shown);
+                    request.setAttribute("rating", commentService.getRating(event.getId()));
+                    request.setAttribute("nextCursor", comments.getNextCursor());
+                }
                 this.getServletContext().getRequestDispatcher("/WEB-INF/showEvent.jsp").forward(request, response);
                 break;
             default:
@@ -79,18 +109,19 @@ public class pagesServlet extends HttpServlet {
         }
     }
 
-    private List<Event> getFiltredEvents(HttpServletRequest request, HttpServletResponse response) {
+    private Page<EventSummary> getFiltredEvents(HttpServletRequest request, HttpServletResponse response) {
         EventService eventService = new EventService();
         String search = request.getParameter("search");
+        String cursor = request.getParameter("cursor");
         if (search == null) {
-            return eventService.filterEvents("", "", "", "");
+            return eventService.filterEvents("", "", "", "", cursor);
         }
         String fromDate = (String) request.getParameter("fromdate");
         String toDate = (String) request.getParameter("todate");
         String text = (String) request.getParameter("text");
         String categoryId = (String) request.getParameter("category");
 
-        return eventService.filterEvents(fromDate, toDate, text, categoryId);
+        return eventService.filterEvents(fromDate, toDate, text, categoryId, cursor);
     }
 
     public static void checkSessionNotEmpty(HttpServletRequest request) {
@@ -115,6 +146,7 @@ public class pagesServlet extends HttpServlet {
         if (tickets.isEmpty()){
             request.setAttribute("message","This Event Doesn't have any Tickets !!");
             this.getServletContext().getRequestDispatcher("/event").forward(request,response);
+            return;
         }
         if(tickets.get(0).getType().name().equals("VIP")){
             ticketVip = tickets.get(0);
@@ -148,26 +180,17 @@ public class pagesServlet extends HttpServlet {
         //check date
         if(!Vip.getEvent().getDate().isAfter(LocalDateTime.now())|| !Standard.getEvent().getDate().isAfter(LocalDateTime.now())){
             request.setAttribute("message","This Event is Expired !!");
-            this.getServletContext().getRequestDispatcher("/event").forward(request,response);
-        }else if(Standard.getQuantityAvailable()<numStandard ){
-            request.setAttribute("message","Tickets is not Available !!");
-            this.getServletContext().getRequestDispatcher("/event").forward(request,response);
-        }
-        else if(Vip.getQuantityAvailable()<numVip ){
-            request.setAttribute("message","Tickets is not Available !!");
-            this.getServletContext().getRequestDispatcher("/event").forward(request,response);
         }
         else {
-            Reservation reservation = new Reservation(LocalDateTime.now(),user,Vip);
-            Reservation reservation2 = new Reservation(LocalDateTime.now(),user,Standard);
-            Vip.setQuantityAvailable(Vip.getQuantityAvailable()-numVip);
-            Standard.setQuantityAvailable(Standard.getQuantityAvailable()-numStandard);
-            reservationService.save(reservation);
-            ticketService.updateTicket(Vip);
-            reservationService.save(reservation2);
-            ticketService.updateTicket(Standard);
-            request.setAttribute("message", "Reservation has been Successfully !!");
-
+            Map<Ticket, Integer> quantities = new LinkedHashMap<>();
+            quantities.put(Vip, numVip);
+            quantities.put(Standard, numStandard);
+            try {
+                reservationService.reserve(user, quantities);
+                request.setAttribute("message", "Reservation has been Successfully !!");
+            } catch (IllegalStateException e) {
+                request.setAttribute("message", e.getMessage());
+            }
         }
 
         this.getServletContext().getRequestDispatcher("/event").forward(request,response);
@@ -1,13 +1,22 @@
 package com.gathergrid.gathergridfeatures.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// InnoDB appends the primary key to every secondary index, so these also serve the (date, id) keyset order
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_date", columnList = "date"),
+        @Index(name = "idx_events_category_date", columnList = "category_id, date"),
+        @Index(name = "idx_events_organizer_date", columnList = "organizer_id, date")
+})
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,7 +27,7 @@ public class Event {
     @Column(columnDefinition = "Text")
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User organizer;
 
     @OneToMany(mappedBy = "event", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
@@ -27,7 +36,7 @@ public class Event {
     @OneToMany(mappedBy = "event", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Comment> comments = new ArrayList<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Category category;
 
     public Event() {}
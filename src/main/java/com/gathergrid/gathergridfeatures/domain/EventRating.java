@@ -0,0 +1,99 @@
+package com.gathergrid.gathergridfeatures.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Running totals of the comment ratings of one event, kept in step with its comments so pages
+ * can show the average without reading them. Only changed under a pessimistic lock, see
+ * {@link com.gathergrid.gathergridfeatures.repository.EventRatingRepository#lock}.
+ */
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "event_ratings")
+public class EventRating {
+    public static final int MAX_RATING = 10;
+
+    @Id
+    private long eventId;
+
+    private int ratingCount;
+
+    private long ratingSum;
+
+    // number of comments per rating, index 0 holding the 1s
+    @Convert(converter = HistogramConverter.class)
+    @Column(length = 128)
+    private int[] histogram = new int[MAX_RATING];
+
+    public EventRating() {}
+
+    public EventRating(long eventId) {
+        this.eventId = eventId;
+    }
+
+    public void add(int rating) {
+        change(rating, 1);
+    }
+
+    public void remove(int rating) {
+        change(rating, -1);
+    }
+
+    private void change(int rating, int delta) {
+        if (rating < 1 || rating > MAX_RATING) {
+            throw new IllegalArgumentException("rating must be between 1 and " + MAX_RATING);
+        }
+        // a new array rather than an in-place write, so dirty checking sees the change
+        int[] updated = histogram.clone();
+        updated[rating - 1] += delta;
+        histogram = updated;
+        ratingCount += delta;
+        ratingSum += (long) rating * delta;
+    }
+
+    public long getEventId() {
+        return eventId;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public double getAverage() {
+        return ratingCount == 0 ? 0 : (double) ratingSum / ratingCount;
+    }
+
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    @Converter
+    public static class HistogramConverter implements AttributeConverter<int[], String> {
+        @Override
+        public String convertToDatabaseColumn(int[] histogram) {
+            return Arrays.stream(histogram).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        }
+
+        @Override
+        public int[] convertToEntityAttribute(String column) {
+            int[] histogram = new int[MAX_RATING];
+            if (column != null && !column.isBlank()) {
+                String[] counts = column.split(",");
+                for (int i = 0; i < counts.length && i < MAX_RATING; i++) {
+                    histogram[i] = Integer.parseInt(counts[i].trim());
+                }
+            }
+            return histogram;
+        }
+    }
+}
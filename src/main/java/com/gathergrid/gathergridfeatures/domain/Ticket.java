@@ -3,6 +3,7 @@ package com.gathergrid.gathergridfeatures.domain;
 import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,17 +11,19 @@ import java.util.List;
 @Table(name = "tickets")
 public class Ticket {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "tickets_seq", allocationSize = 50)
     private long id;
     private float price;
     private int quantityAvailable;
     @Enumerated(EnumType.STRING)
     private TicketType type;
+    private LocalDateTime inventoryFlushedAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
     private Event event;
 
-    @OneToMany(mappedBy = "ticket", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "ticket", fetch = FetchType.LAZY)
     private List<Reservation> reservations = new ArrayList<>();
 
     public Ticket(float price, int quantityAvailable, TicketType type) {
@@ -67,6 +70,14 @@ public class Ticket {
         this.quantityAvailable = quantityAvailable;
     }
 
+    public LocalDateTime getInventoryFlushedAt() {
+        return inventoryFlushedAt;
+    }
+
+    public void setInventoryFlushedAt(LocalDateTime inventoryFlushedAt) {
+        this.inventoryFlushedAt = inventoryFlushedAt;
+    }
+
     public TicketType getType() {
         return type;
     }
@@ -0,0 +1,58 @@
+package com.gathergrid.gathergridfeatures.domain.dto;
+
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One reservation of an event with its attendee and ticket tier, built by a JPQL constructor
+ * expression so an export reads plain values and never fills the persistence context.
+ */
+public class AttendeeRow {
+    private final long reservationId;
+    private final LocalDateTime reservationDate;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final TicketType ticketType;
+    private final float price;
+
+    public AttendeeRow(long reservationId, LocalDateTime reservationDate, String firstName, String lastName, String email,
+                       TicketType ticketType, float price) {
+        this.reservationId = reservationId;
+        this.reservationDate = reservationDate;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.ticketType = ticketType;
+        this.price = price;
+    }
+
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    public LocalDateTime getReservationDate() {
+        return reservationDate;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public TicketType getTicketType() {
+        return ticketType;
+    }
+
+    public float getPrice() {
+        return price;
+    }
+}
@@ -0,0 +1,65 @@
+package com.gathergrid.gathergridfeatures.domain.dto;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.Event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an event with exactly what the /event listing renders, built by a JPQL
+ * constructor expression so a whole page comes back in a single query.
+ */
+public class EventSummary {
+    private final long id;
+    private final String name;
+    private final LocalDateTime date;
+    private final String address;
+    private final String description;
+    private final Long categoryId;
+    private final String categoryName;
+
+    public EventSummary(long id, String name, LocalDateTime date, String address, String description,
+                        Long categoryId, String categoryName) {
+        this.id = id;
+        this.name = name;
+        this.date = date;
+        this.address = address;
+        this.description = description;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+    }
+
+    public static EventSummary of(Event event) {
+        Category category = event.getCategory();
+        return new EventSummary(event.getId(), event.getName(), event.getDate(), event.getAddress(), event.getDescription(),
+                category == null ? null : category.getId(), category == null ? null : category.getName());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+}
@@ -0,0 +1,156 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Passes the response body through to the client and keeps a copy of it, up to a limit past
+ * which the copy is dropped. Pages written through the writer are copied as characters and
+ * encoded with the response's charset when the copy is taken.
+ */
+class CapturingResponse extends HttpServletResponseWrapper {
+    private final int limit;
+    private ByteArrayOutputStream bytes;
+    private CharArrayWriter chars;
+    private boolean overflowed;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CapturingResponse(HttpServletResponse response, int limit) {
+        super(response);
+        this.limit = limit;
+    }
+
+    /** The body written so far, or null when it went over the limit. */
+    byte[] getCopy() {
+        if (overflowed) {
+            return null;
+        }
+        if (chars != null) {
+            return chars.toString().getBytes(Charset.forName(getCharacterEncoding()));
+        }
+        return bytes == null ? new byte[0] : bytes.toByteArray();
+    }
+
+    private boolean room(int len) {
+        int size = bytes != null ? bytes.size() : chars != null ? chars.size() : 0;
+        if (!overflowed && size + len > limit) {
+            overflowed = true;
+            bytes = null;
+            chars = null;
+        }
+        return !overflowed;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            bytes = new ByteArrayOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    if (room(1)) {
+                        bytes.write(b);
+                    }
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    if (room(len)) {
+                        bytes.write(b, off, len);
+                    }
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    target.close();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    target.setWriteListener(writeListener);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            PrintWriter target = super.getWriter();
+            chars = new CharArrayWriter();
+            writer = new PrintWriter(new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                    target.write(cbuf, off, len);
+                    if (room(len)) {
+                        chars.write(cbuf, off, len);
+                    }
+                }
+
+                @Override
+                public void write(String str, int off, int len) {
+                    target.write(str, off, len);
+                    if (room(len)) {
+                        chars.write(str, off, len);
+                    }
+                }
+
+                @Override
+                public void flush() {
+                    target.flush();
+                }
+
+                @Override
+                public void close() {
+                    target.close();
+                }
+            });
+        }
+        return writer;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardCopy();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardCopy();
+    }
+
+    private void discardCopy() {
+        if (bytes != null) {
+            bytes.reset();
+        }
+        if (chars != null) {
+            chars.reset();
+        }
+    }
+}
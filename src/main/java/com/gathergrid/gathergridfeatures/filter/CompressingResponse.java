@@ -0,0 +1,215 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds back the first {@link Gzip#MIN_BYTES} of the body. Once more than that is written, or the
+ * body is flushed, the response is gzipped if its content type is worth it and nothing else has
+ * encoded it; otherwise, and for a body that ends before the threshold, it is sent as written.
+ * A content length set by the servlet is only passed on for responses that are not compressed.
+ * <p>
+ * Headers and body go to the response this wrapper was created with. During an include the
+ * container slips a wrapper under this one that ignores headers, and a page that imports others
+ * with {@code c:import} may well be flushed while it is there.
+ */
+class CompressingResponse extends HttpServletResponseWrapper {
+    private enum State {UNDECIDED, PLAIN, GZIP, FINISHED}
+
+    private final HttpServletResponse origin;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(Gzip.MIN_BYTES);
+    private State state = State.UNDECIDED;
+    private OutputStream target;
+    private long contentLength = -1;
+    private boolean encoded;
+    private boolean finishing;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressingResponse(HttpServletResponse response) {
+        super(response);
+        this.origin = response;
+    }
+
+    /** Sends whatever is still held back and ends the gzip stream; called once the body is complete. */
+    void finish() throws IOException {
+        // this flush only drains the writer's characters, it is no reason to stream a complete body
+        finishing = true;
+        if (writer != null) {
+            writer.flush();
+        }
+        if (state == State.UNDECIDED) {
+            if (pending.size() > 0 && !origin.isCommitted()) {
+                origin.setContentLengthLong(pending.size());
+            }
+            decide(false);
+        }
+        if (state == State.GZIP) {
+            ((GZIPOutputStream) target).finish();
+        }
+        state = State.FINISHED;
+    }
+
+    private void decide(boolean compress) throws IOException {
+        compress = compress && !encoded && !origin.isCommitted() && origin.getStatus() == SC_OK
+                && Gzip.isCompressible(origin.getContentType());
+        if (compress) {
+            origin.setHeader("Content-Encoding", "gzip");
+            origin.addHeader("Vary", "Accept-Encoding");
+            target = new GZIPOutputStream(origin.getOutputStream(), 8 * 1024, true);
+            state = State.GZIP;
+        } else {
+            if (contentLength >= 0 && !origin.isCommitted()) {
+                origin.setContentLengthLong(contentLength);
+            }
+            state = State.PLAIN;
+        }
+        if (pending.size() > 0) {
+            target().write(pending.toByteArray());
+            pending.reset();
+        }
+    }
+
+    // plain responses only open the container's stream once there is something to send
+    private OutputStream target() throws IOException {
+        if (target == null) {
+            target = origin.getOutputStream();
+        }
+        return target;
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        if (state == State.UNDECIDED) {
+            if (pending.size() + len <= Gzip.MIN_BYTES) {
+                pending.write(b, off, len);
+                return;
+            }
+            decide(true);
+        }
+        if (state == State.FINISHED) {
+            throw new IOException("The response is complete");
+        }
+        target().write(b, off, len);
+    }
+
+    private void flush() throws IOException {
+        if (state == State.UNDECIDED) {
+            if (finishing) {
+                return;
+            }
+            decide(true);
+        }
+        if (state != State.FINISHED && target != null) {
+            target.flush();
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    CompressingResponse.this.write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    CompressingResponse.this.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    CompressingResponse.this.flush();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new IllegalStateException("Non-blocking output is not supported on compressed responses");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            // named in the content type, as the container does when it hands out a writer itself
+            origin.setCharacterEncoding(origin.getCharacterEncoding());
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), origin.getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        flush();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        contentLength = len;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = Long.parseLong(value);
+            return;
+        }
+        if ("Content-Encoding".equalsIgnoreCase(name)) {
+            encoded = true;
+        }
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if ("Content-Length".equalsIgnoreCase(name)) {
+            contentLength = Long.parseLong(value);
+            return;
+        }
+        if ("Content-Encoding".equalsIgnoreCase(name)) {
+            encoded = true;
+        }
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        pending.reset();
+        contentLength = -1;
+        encoded = false;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        pending.reset();
+    }
+}
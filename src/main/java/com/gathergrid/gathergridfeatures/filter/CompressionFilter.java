@@ -0,0 +1,49 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Gzips text responses larger than {@code gathergrid.compression.minBytes} for clients that
+ * accept it, see {@link CompressingResponse}. Declared first in web.xml so it wraps the other
+ * filters: {@link PageCacheFilter} keeps pages as rendered and static assets come precompressed
+ * from {@link StaticAssetFilter}, and both mark those responses as encoded so they pass through.
+ */
+public class CompressionFilter extends HttpFilter {
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if ("HEAD".equals(request.getMethod()) || !Gzip.isAccepted(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse compressing = new CompressingResponse(response);
+        chain.doFilter(request, compressing);
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) throws IOException {
+                    compressing.finish();
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+            });
+        } else {
+            compressing.finish();
+        }
+    }
+}
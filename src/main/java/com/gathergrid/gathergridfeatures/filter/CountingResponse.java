@@ -0,0 +1,114 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * Counts what is written to the response body: bytes through the output stream, characters
+ * through the writer. Both pass straight through to the container's own buffers, so nothing
+ * here needs flushing when the response completes.
+ */
+class CountingResponse extends HttpServletResponseWrapper {
+    // only the thread producing the response writes it
+    private volatile long written;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CountingResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    long getWritten() {
+        return written;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            ServletOutputStream target = super.getOutputStream();
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    written++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    written += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    target.close();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    target.setWriteListener(writeListener);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            PrintWriter target = super.getWriter();
+            writer = new PrintWriter(new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                    target.write(cbuf, off, len);
+                    written += len;
+                }
+
+                @Override
+                public void write(String str, int off, int len) {
+                    target.write(str, off, len);
+                    written += len;
+                }
+
+                @Override
+                public void flush() {
+                    target.flush();
+                }
+
+                @Override
+                public void close() {
+                    target.close();
+                }
+            });
+        }
+        return writer;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        written = 0;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        written = 0;
+    }
+}
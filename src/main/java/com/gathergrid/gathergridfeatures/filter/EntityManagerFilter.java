@@ -0,0 +1,21 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.servlet.*;
+import jakarta.servlet.annotation.WebFilter;
+
+import java.io.IOException;
+
+// asynchronous requests do their database work on DatabaseExecutor threads, which close their own
+// EntityManager; this only cleans up after work done on the container thread
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class EntityManagerFilter implements Filter {
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * What {@link CompressionFilter}, {@link PageCacheFilter} and {@link StaticAssets} agree on:
+ * which clients take gzip, which content types are worth compressing and how small a body is
+ * sent as it is ({@code gathergrid.compression.minBytes}).
+ */
+final class Gzip {
+    static final int MIN_BYTES = Integer.getInteger("gathergrid.compression.minBytes", 1024);
+
+    private Gzip() {}
+
+    static boolean isAccepted(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    // images, fonts other than svg and archives are compressed already
+    static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.startsWith("application/javascript") || type.startsWith("application/json")
+                || type.startsWith("application/xml") || type.startsWith("image/svg+xml")
+                || type.startsWith("application/vnd.ms-fontobject") || type.startsWith("font/ttf");
+    }
+
+    static byte[] compress(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
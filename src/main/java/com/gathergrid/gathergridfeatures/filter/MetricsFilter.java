@@ -0,0 +1,63 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import com.gathergrid.gathergridfeatures.metrics.RequestMetrics;
+import com.gathergrid.gathergridfeatures.metrics.RouteMetrics;
+import jakarta.servlet.*;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+/**
+ * Times every request and records it under its servlet mapping, so each path of pagesServlet
+ * gets its own numbers. Asynchronous requests are recorded when they complete, not when the
+ * container thread lets go of them. Exposed on /metrics by MetricsServlet.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class MetricsFilter implements Filter {
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!(request instanceof HttpServletRequest) || !(response instanceof HttpServletResponse)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        RouteMetrics route = RequestMetrics.getInstance().route(routeOf(httpRequest.getHttpServletMapping()));
+        CountingResponse counting = new CountingResponse((HttpServletResponse) response);
+        long start = System.nanoTime();
+        route.begin();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, counting);
+            failed = false;
+        } finally {
+            if (!failed && httpRequest.isAsyncStarted()) {
+                httpRequest.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        route.end(System.nanoTime() - start, counting.getStatus(), counting.getWritten());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+
+                    @Override
+                    public void onError(AsyncEvent event) {}
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                });
+            } else {
+                route.end(System.nanoTime() - start, failed ? 500 : counting.getStatus(), counting.getWritten());
+            }
+        }
+    }
+
+    // the mapping pattern, e.g. /event, /auth/* or *.jsp, keeps the number of routes bounded
+    private static String routeOf(HttpServletMapping mapping) {
+        String pattern = mapping == null ? null : mapping.getPattern();
+        return pattern == null || pattern.isEmpty() ? "/" : pattern;
+    }
+}
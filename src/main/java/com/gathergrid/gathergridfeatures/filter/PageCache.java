@@ -0,0 +1,112 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rendered pages kept by {@link PageCacheFilter}, least recently used first out. The cache holds
+ * at most {@code gathergrid.pageCache.maxEntries} pages and {@code gathergrid.pageCache.maxBytes}
+ * bytes of them. Each page remembers the catalog version and time slot it was rendered in and is
+ * only returned while both are still current, so stale pages are never served; they are simply
+ * left for eviction. The gzipped copy of a page is made once and kept with it, outside the byte
+ * limit, which counts the pages as rendered.
+ */
+public class PageCache {
+    private static final PageCache INSTANCE = new PageCache(Integer.getInteger("gathergrid.pageCache.maxEntries", 1000),
+            Long.getLong("gathergrid.pageCache.maxBytes", 32L * 1024 * 1024));
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** A rendered page body with the content type it was sent with. */
+    static class Page {
+        final long version;
+        final long slot;
+        final String contentType;
+        final byte[] body;
+        // compressed on the first request that takes gzip; racing requests may both compress it
+        private volatile byte[] gzipped;
+
+        Page(long version, long slot, String contentType, byte[] body) {
+            this.version = version;
+            this.slot = slot;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        byte[] gzipped() {
+            byte[] compressed = gzipped;
+            if (compressed == null) {
+                compressed = Gzip.compress(body);
+                gzipped = compressed;
+            }
+            return compressed;
+        }
+    }
+
+    PageCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public static PageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /** The page rendered for the key under this version and slot, or null. */
+    synchronized Page get(String key, long version, long slot) {
+        Page page = pages.get(key);
+        if (page == null || page.version != version || page.slot != slot) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return page;
+    }
+
+    synchronized void put(String key, Page page) {
+        if (page.body.length > maxBytes) {
+            return;
+        }
+        Page previous = pages.put(key, page);
+        bytes += page.body.length - (previous == null ? 0 : previous.body.length);
+        Iterator<Map.Entry<String, Page>> eldest = pages.entrySet().iterator();
+        while ((pages.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().body.length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void clear() {
+        pages.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return pages.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,165 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves the event listing and event pages from {@link PageCache} while nothing they show has
+ * changed, and answers conditional GETs with 304. A page is identified by its path and sorted
+ * query parameters and is valid for the current {@link CatalogVersion} and time slot: slots of
+ * {@code gathergrid.pageCache.ttlSeconds} let pages that depend on the clock, such as the
+ * upcoming events, move on even when nothing is written. The ETag and Last-Modified headers are
+ * derived from the version and slot, so a revalidation is answered without rendering anything.
+ * Pages are kept as rendered and gzipped once for the clients that take it.
+ * <p>
+ * Only requests without a signed-in user take part: the event page shows signed-in users the
+ * comment form and their own comments that are still being saved. Their responses vary on the
+ * cookie and must be revalidated, and a servlet can keep a response out of the cache by marking
+ * it {@code private} or {@code no-store}.
+ */
+@WebFilter(urlPatterns = {"/event", "/showEvent"}, asyncSupported = true)
+public class PageCacheFilter extends HttpFilter {
+    private static final long SLOT_MILLIS = Long.getLong("gathergrid.pageCache.ttlSeconds", 60) * 1000;
+    private static final int MAX_PAGE_BYTES = Integer.getInteger("gathergrid.pageCache.maxPageBytes", 512 * 1024);
+    private static final int MAX_KEY_LENGTH = 1024;
+
+    private final PageCache cache;
+
+    public PageCacheFilter() {
+        this(PageCache.getInstance());
+    }
+
+    PageCacheFilter(PageCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        String key = "GET".equals(request.getMethod()) && !isSignedIn(request) ? keyOf(request) : null;
+        if (key == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long version = CatalogVersion.current();
+        long now = System.currentTimeMillis();
+        long slot = now / SLOT_MILLIS;
+        String etag = "W/\"" + version + "-" + slot + "\"";
+        long lastModified = Math.max(CatalogVersion.lastModified(), slot * SLOT_MILLIS);
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("Vary", "Cookie");
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        PageCache.Page page = cache.get(key, version, slot);
+        if (page != null) {
+            byte[] body = page.body;
+            if (body.length >= Gzip.MIN_BYTES && Gzip.isCompressible(page.contentType)) {
+                response.addHeader("Vary", "Accept-Encoding");
+                if (Gzip.isAccepted(request)) {
+                    body = page.gzipped();
+                    response.setHeader("Content-Encoding", "gzip");
+                }
+            }
+            response.setContentType(page.contentType);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+            return;
+        }
+
+        CapturingResponse capturing = new CapturingResponse(response, MAX_PAGE_BYTES);
+        chain.doFilter(request, capturing);
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    store(key, version, slot, capturing);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+            });
+        } else {
+            store(key, version, slot, capturing);
+        }
+    }
+
+    // a page rendered while the version moved may show either side of the write, so it is not kept
+    private void store(String key, long version, long slot, CapturingResponse rendered) {
+        String cacheControl = rendered.getHeader("Cache-Control");
+        if (rendered.getStatus() != HttpServletResponse.SC_OK || rendered.getContentType() == null
+                || cacheControl == null || !cacheControl.equals("no-cache")
+                || version != CatalogVersion.current()) {
+            return;
+        }
+        byte[] body = rendered.getCopy();
+        if (body != null && body.length > 0) {
+            cache.put(key, new PageCache.Page(version, slot, rendered.getContentType(), body));
+        }
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag) || ("W/" + tag).equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean isSignedIn(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session != null && session.getAttribute("user") != null;
+    }
+
+    // path plus sorted parameters, so ?a=1&b=2 and ?b=2&a=1 share a page; null when too long to be worth keeping
+    static String keyOf(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getServletPath());
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        char separator = '?';
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            for (String value : parameter.getValue()) {
+                key.append(separator).append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+                        .append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+            if (key.length() > MAX_KEY_LENGTH) {
+                return null;
+            }
+        }
+        return key.toString();
+    }
+}
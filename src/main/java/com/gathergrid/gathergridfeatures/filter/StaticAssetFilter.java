@@ -0,0 +1,81 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serves the webapp's stylesheets, scripts, fonts and images from {@link StaticAssets}, gzipped
+ * once for the clients that take it. A fingerprinted URL whose hash is the file's current one
+ * never changes, so it is sent with {@code Cache-Control: immutable} for a year; any other URL,
+ * including a fingerprint that has since been replaced, must be revalidated, which is answered
+ * with 304 from the hash alone. Files the registry does not keep are left to the container.
+ */
+@WebFilter(urlPatterns = {"/css/*", "/js/*", "/fonts/*", "/images/*", "/assets/*"}, asyncSupported = true)
+public class StaticAssetFilter extends HttpFilter {
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private StaticAssets assets;
+
+    public StaticAssetFilter() {}
+
+    StaticAssetFilter(StaticAssets assets) {
+        this.assets = assets;
+    }
+
+    @Override
+    public void init() {
+        if (assets == null) {
+            assets = new StaticAssets(getServletContext());
+        }
+        getServletContext().setAttribute(StaticAssets.ATTRIBUTE, assets.urls());
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String path = request.getServletPath() + (request.getPathInfo() == null ? "" : request.getPathInfo());
+        StaticAssets.Asset asset = assets.find(path);
+        boolean current = false;
+        if (asset == null) {
+            Map.Entry<StaticAssets.Asset, Boolean> fingerprinted = assets.findFingerprinted(path);
+            if (fingerprinted == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            asset = fingerprinted.getKey();
+            current = fingerprinted.getValue();
+        }
+        String etag = "W/\"" + asset.hash + "\"";
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", current ? IMMUTABLE : "no-cache");
+        if (asset.gzipped != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.contains(etag.substring(2)))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        byte[] body = asset.body;
+        if (asset.gzipped != null && Gzip.isAccepted(request)) {
+            body = asset.gzipped;
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentType(asset.contentType);
+        response.setContentLength(body.length);
+        if (!head) {
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.ServletContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The webapp's static files, read once and kept in memory with their content hash and, for text,
+ * a gzipped copy. Pages link to them through {@link #url(String)}, available in JSPs as {@code
+ * ${assets['/css/style.css']}}, which puts the hash in the file name: {@code
+ * /css/style.1a2b3c4d5e6f.css}. A new version of a file gets a new name, so browsers may keep
+ * each one for good.
+ * <p>
+ * Files larger than {@code gathergrid.assets.maxBytes} are left to the container. The webapp is
+ * assumed not to change while deployed.
+ */
+public class StaticAssets {
+    static final String ATTRIBUTE = "assets";
+    private static final int MAX_BYTES = Integer.getInteger("gathergrid.assets.maxBytes", 1024 * 1024);
+    private static final int HASH_LENGTH = 12;
+    private static final Pattern FINGERPRINTED = Pattern.compile("(.*)\\.([0-9a-f]{" + HASH_LENGTH + "})(\\.[^./]+)$");
+
+    private final ServletContext context;
+    // only files that exist are kept, so the map is bounded by the webapp whatever clients ask for
+    private final ConcurrentHashMap<String, Asset> assets = new ConcurrentHashMap<>();
+
+    /** One file: its bytes as stored, gzipped when that is worth it, and its hash. */
+    static class Asset {
+        final String path;
+        final String hash;
+        final String contentType;
+        final byte[] body;
+        final byte[] gzipped;
+
+        Asset(String path, String hash, String contentType, byte[] body, byte[] gzipped) {
+            this.path = path;
+            this.hash = hash;
+            this.contentType = contentType;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+
+        String fingerprintedPath() {
+            int slash = path.lastIndexOf('/');
+            int dot = path.lastIndexOf('.');
+            if (dot <= slash + 1) {
+                return path + "." + hash;
+            }
+            return path.substring(0, dot) + "." + hash + path.substring(dot);
+        }
+    }
+
+    StaticAssets(ServletContext context) {
+        this.context = context;
+    }
+
+    /**
+     * The URL to link the file with, context path included: fingerprinted when the file can be
+     * served from memory, the plain path otherwise.
+     */
+    public String url(String path) {
+        Asset asset = find(path);
+        return context.getContextPath() + (asset == null ? path : asset.fingerprintedPath());
+    }
+
+    /** {@link #url(String)} as a map, the shape JSP expressions can look up. */
+    Map<String, String> urls() {
+        return new AbstractMap<>() {
+            @Override
+            public String get(Object path) {
+                return path instanceof String ? url((String) path) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object path) {
+                return path instanceof String;
+            }
+
+            @Override
+            public Set<Entry<String, String>> entrySet() {
+                return Collections.emptySet();
+            }
+        };
+    }
+
+    /** The asset at the path, or null when there is no such file or it is too big to keep. */
+    Asset find(String path) {
+        if (path == null || !path.startsWith("/") || path.contains("..")
+                || path.toUpperCase().startsWith("/WEB-INF") || path.toUpperCase().startsWith("/META-INF")) {
+            return null;
+        }
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            asset = load(path);
+            if (asset != null) {
+                Asset raced = assets.putIfAbsent(path, asset);
+                asset = raced != null ? raced : asset;
+            }
+        }
+        return asset;
+    }
+
+    /**
+     * The asset a fingerprinted path names and whether the hash is the current one, or null when
+     * the path is not fingerprinted or names no asset.
+     */
+    Map.Entry<Asset, Boolean> findFingerprinted(String path) {
+        Matcher matcher = FINGERPRINTED.matcher(path);
+        if (!matcher.matches()) {
+            return null;
+        }
+        Asset asset = find(matcher.group(1) + matcher.group(3));
+        return asset == null ? null : Map.entry(asset, asset.hash.equals(matcher.group(2)));
+    }
+
+    private Asset load(String path) {
+        byte[] body;
+        try (InputStream in = context.getResourceAsStream(path)) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream read = new ByteArrayOutputStream();
+            byte[] chunk = new byte[16 * 1024];
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                read.write(chunk, 0, n);
+                if (read.size() > MAX_BYTES) {
+                    return null;
+                }
+            }
+            body = read.toByteArray();
+        } catch (IOException e) {
+            // a directory, or a file that cannot be read: the container answers for it
+            return null;
+        }
+        String contentType = context.getMimeType(path);
+        if (contentType == null) {
+            contentType = "application/octet-stream";
+        }
+        byte[] gzipped = null;
+        if (body.length >= Gzip.MIN_BYTES && Gzip.isCompressible(contentType)) {
+            byte[] compressed = Gzip.compress(body);
+            // not worth a second copy, or a Content-Encoding, for less than a tenth saved
+            gzipped = compressed.length < body.length * 0.9 ? compressed : null;
+        }
+        return new Asset(path, hash(body), contentType, body, gzipped);
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body)).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads events from CSV with a header row, one event per record. The columns are {@code name},
+ * {@code date}, {@code address}, {@code description} and {@code category}, plus a {@code
+ * <type>_price} and {@code <type>_quantity} pair for each ticket tier, such as {@code vip_price};
+ * a tier whose two cells are empty is left out. Fields follow RFC 4180: quoted fields may hold
+ * commas, doubled quotes and line breaks.
+ */
+class CsvEventReader implements EventRowReader {
+    private static final List<String> EVENT_COLUMNS = List.of("name", "date", "address", "description", "category");
+    // a record this long is a runaway quote rather than an event
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final List<TicketType> tiers = new ArrayList<>();
+    private long line = 1;
+    private long record;
+    private boolean started;
+
+    CsvEventReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            if (columns.put(column, i) != null) {
+                throw new IllegalArgumentException("Column " + column + " appears twice");
+            }
+            if (!EVENT_COLUMNS.contains(column) && tierOf(column) == null) {
+                throw new IllegalArgumentException("Unknown column " + column);
+            }
+        }
+        for (String column : EVENT_COLUMNS) {
+            if (!column.equals("description") && !columns.containsKey(column)) {
+                throw new IllegalArgumentException("Missing column " + column);
+            }
+        }
+        for (TicketType type : TicketType.values()) {
+            String prefix = type.name().toLowerCase(Locale.ROOT);
+            boolean price = columns.containsKey(prefix + "_price");
+            if (price != columns.containsKey(prefix + "_quantity")) {
+                throw new IllegalArgumentException("Columns " + prefix + "_price and " + prefix + "_quantity go together");
+            }
+            if (price) {
+                tiers.add(type);
+            }
+        }
+    }
+
+    @Override
+    public EventRow next() {
+        long start;
+        List<String> fields;
+        do {
+            start = line;
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        EventRow row = new EventRow(++record, start);
+        row.name = field(fields, "name");
+        row.date = field(fields, "date");
+        row.address = field(fields, "address");
+        row.description = field(fields, "description");
+        row.category = field(fields, "category");
+        for (TicketType type : tiers) {
+            String prefix = type.name().toLowerCase(Locale.ROOT);
+            String price = field(fields, prefix + "_price");
+            String quantity = field(fields, prefix + "_quantity");
+            if (price != null || quantity != null) {
+                row.tickets.add(new EventRow.TicketRow(type.name(), price, quantity));
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isBlank() ? null : value;
+    }
+
+    private static TicketType tierOf(String column) {
+        for (TicketType type : TicketType.values()) {
+            String prefix = type.name().toLowerCase(Locale.ROOT);
+            if (column.equals(prefix + "_price") || column.equals(prefix + "_quantity")) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /** The fields of the next record, or null at the end of the input. */
+    private List<String> readRecord() {
+        try {
+            int c = reader.read();
+            if (!started) {
+                started = true;
+                // a byte order mark is left at the front by some spreadsheet exports
+                if (c == '\uFEFF') {
+                    c = reader.read();
+                }
+            }
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            long recordStart = line;
+            int length = 0;
+            while (true) {
+                if (++length > MAX_RECORD_CHARS) {
+                    throw new IllegalArgumentException("Record starting on line " + recordStart + " is longer than "
+                            + MAX_RECORD_CHARS + " characters, is a quote left open?");
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Quote opened on line " + recordStart + " is never closed");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.EventRating;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.search.EventCatalog;
+import com.gathergrid.gathergridfeatures.search.EventSearchIndex;
+import com.gathergrid.gathergridfeatures.service.TicketService;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.persistence.EntityManager;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates events with their ticket tiers from a CSV or JSON file, reading it as a stream. Rows
+ * are checked first, tickets with {@link TicketService#validateTicket(Ticket)}, and the valid
+ * ones are saved {@code gathergrid.import.chunkSize} events per transaction, flushed in JDBC
+ * batches. When a chunk fails to save, its events are saved one at a time instead so only the
+ * faulty ones are rejected. Categories are looked up by name and created when missing.
+ * <p>
+ * Memory stays flat whatever the file size: one chunk of events is held at a time and the
+ * persistence context is cleared after each.
+ */
+public class EventImporter {
+    private static final Logger LOGGER = Logger.getLogger(EventImporter.class.getName());
+    private static final int CHUNK_SIZE = Integer.getInteger("gathergrid.import.chunkSize", 1000);
+    private static final int MAX_TEXT = 255;
+
+    private final int chunkSize;
+    // categories by name, detached but loaded, so they can be referenced from any transaction
+    private final Map<String, Category> categories = new HashMap<>();
+
+    public EventImporter() {
+        this(CHUNK_SIZE);
+    }
+
+    EventImporter(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /** A row that passed validation; entities are built from it afresh for every attempt to save it. */
+    private static class ValidRow {
+        final EventRow row;
+        final LocalDateTime date;
+        final List<Ticket> tiers;
+
+        ValidRow(EventRow row, LocalDateTime date, List<Ticket> tiers) {
+            this.row = row;
+            this.date = date;
+            this.tiers = tiers;
+        }
+
+        Event toEvent() {
+            Event event = new Event(row.name.trim(), date, trimmed(row.address), row.description);
+            for (Ticket tier : tiers) {
+                event.addTicket(new Ticket(tier.getPrice(), tier.getQuantityAvailable(), tier.getType()));
+            }
+            return event;
+        }
+    }
+
+    /**
+     * Imports every event of the file for the given organizer.
+     *
+     * @throws IllegalArgumentException when the organizer does not exist or the file cannot be
+     *                                  read at all, such as a CSV header with unknown columns
+     */
+    public ImportReport importEvents(Reader input, ImportFormat format, long organizerId) {
+        long start = System.nanoTime();
+        if (EntityManagerUtil.getEntityManager().find(User.class, organizerId) == null) {
+            throw new IllegalArgumentException("No user with id " + organizerId);
+        }
+        ImportReport report = new ImportReport();
+        List<ValidRow> chunk = new ArrayList<>(chunkSize);
+        try (EventRowReader rows = format.open(input)) {
+            EventRow row;
+            while ((row = nextRow(rows, report)) != null) {
+                try {
+                    chunk.add(validate(row));
+                } catch (IllegalArgumentException e) {
+                    report.failed(row, e.getMessage());
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    save(chunk, organizerId, report);
+                    chunk.clear();
+                }
+            }
+            save(chunk, organizerId, report);
+        } catch (IOException e) {
+            report.abort("Could not read the file: " + e.getMessage());
+        } finally {
+            EntityManagerUtil.getEntityManager().clear();
+        }
+        report.finish((System.nanoTime() - start) / 1_000_000);
+        LOGGER.info(() -> "Imported " + report.getImported() + " events, rejected " + report.getFailed() + " rows in "
+                + report.getMillis() + " ms" + (report.getAbortedBecause() == null ? "" : ", stopped early: " + report.getAbortedBecause()));
+        return report;
+    }
+
+    private static EventRow nextRow(EventRowReader rows, ImportReport report) {
+        try {
+            return rows.next();
+        } catch (IllegalArgumentException e) {
+            report.abort(e.getMessage());
+            return null;
+        }
+    }
+
+    private static ValidRow validate(EventRow row) {
+        required(row.name, "name");
+        required(row.category, "category");
+        maxLength(row.name, "name");
+        maxLength(row.address, "address");
+        maxLength(row.category, "category");
+        LocalDateTime date;
+        try {
+            date = LocalDateTime.parse(required(row.date, "date").trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date must look like 2024-06-01T20:00, not " + row.date);
+        }
+        if (row.tickets.isEmpty()) {
+            throw new IllegalArgumentException("at least one ticket tier is needed");
+        }
+        List<Ticket> tiers = new ArrayList<>();
+        Set<TicketType> seen = EnumSet.noneOf(TicketType.class);
+        for (EventRow.TicketRow tier : row.tickets) {
+            TicketType type;
+            try {
+                type = TicketType.valueOf(required(tier.type, "ticket type").trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(tier.type == null ? e.getMessage() : "unknown ticket type " + tier.type);
+            }
+            if (!seen.add(type)) {
+                throw new IllegalArgumentException("ticket type " + type + " is listed twice");
+            }
+            float price;
+            int quantity;
+            try {
+                price = Float.parseFloat(required(tier.price, type + " price").trim());
+                quantity = Integer.parseInt(required(tier.quantity, type + " quantity").trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(type + " price and quantity must be numbers");
+            }
+            Ticket ticket = new Ticket(price, quantity, type);
+            try {
+                TicketService.validateTicket(ticket);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(type + ": " + e.getMessage());
+            }
+            tiers.add(ticket);
+        }
+        return new ValidRow(row, date, tiers);
+    }
+
+    private void save(List<ValidRow> chunk, long organizerId, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            index(persist(chunk, organizerId));
+            report.imported(chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            LOGGER.log(Level.FINE, "Chunk failed, saving its events one by one", chunkFailure);
+            for (ValidRow row : chunk) {
+                try {
+                    index(persist(List.of(row), organizerId));
+                    report.imported(1);
+                } catch (RuntimeException e) {
+                    report.failed(row.row, "could not be saved: " + rootMessage(e));
+                }
+            }
+        }
+    }
+
+    /** Saves the events in one transaction; nothing of it remains in the cache of categories if it fails. */
+    private List<Event> persist(List<ValidRow> rows, long organizerId) {
+        List<String> created = new ArrayList<>();
+        try {
+            return EntityManagerUtil.executeInTransaction(em -> {
+                int batchSize = EntityManagerUtil.getBatchSize();
+                User organizer = em.getReference(User.class, organizerId);
+                List<Event> events = new ArrayList<>(rows.size());
+                for (ValidRow row : rows) {
+                    Event event = row.toEvent();
+                    event.setOrganizer(organizer);
+                    event.setCategory(category(em, row.row.category.trim(), created));
+                    em.persist(event);
+                    em.persist(new EventRating(event.getId()));
+                    events.add(event);
+                    if (events.size() % batchSize == 0) {
+                        em.flush();
+                        em.clear();
+                        organizer = em.getReference(User.class, organizerId);
+                    }
+                }
+                em.flush();
+                em.clear();
+                return events;
+            });
+        } catch (RuntimeException e) {
+            created.forEach(categories::remove);
+            // the failed transaction leaves the persistence context unusable
+            EntityManagerUtil.closeEntityManager();
+            throw e;
+        }
+    }
+
+    private Category category(EntityManager em, String name, List<String> created) {
+        Category category = categories.get(name);
+        if (category == null) {
+            List<Category> found = em.createQuery("SELECT c FROM Category c WHERE c.name = :name", Category.class)
+                    .setParameter("name", name)
+                    .setMaxResults(1)
+                    .getResultList();
+            if (found.isEmpty()) {
+                category = new Category(name);
+                em.persist(category);
+                created.add(name);
+            } else {
+                category = found.get(0);
+            }
+            categories.put(name, category);
+        }
+        return category;
+    }
+
+    // the same bookkeeping EventRepository.save does for a single event, with one catalog copy per chunk
+    private static void index(List<Event> events) {
+        List<EventSummary> summaries = new ArrayList<>(events.size());
+        for (Event event : events) {
+            EventSearchIndex.getInstance().index(event);
+            summaries.add(EventSummary.of(event));
+        }
+        EventCatalog.getInstance().upsertAll(summaries);
+        CatalogVersion.bump();
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return value;
+    }
+
+    private static void maxLength(String value, String field) {
+        if (value != null && value.trim().length() > MAX_TEXT) {
+            throw new IllegalArgumentException(field + " is longer than " + MAX_TEXT + " characters");
+        }
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e.getMessage();
+    }
+}
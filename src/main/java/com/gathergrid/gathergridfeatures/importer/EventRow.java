@@ -0,0 +1,33 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** One event as read from the file, before any validation; every value is the text found there. */
+class EventRow {
+    final long record;
+    final long line;
+    String name;
+    String date;
+    String address;
+    String description;
+    String category;
+    final List<TicketRow> tickets = new ArrayList<>();
+
+    static class TicketRow {
+        final String type;
+        final String price;
+        final String quantity;
+
+        TicketRow(String type, String price, String quantity) {
+            this.type = type;
+            this.price = price;
+            this.quantity = quantity;
+        }
+    }
+
+    EventRow(long record, long line) {
+        this.record = record;
+        this.line = line;
+    }
+}
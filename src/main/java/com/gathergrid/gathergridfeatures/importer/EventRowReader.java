@@ -0,0 +1,14 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import java.io.Closeable;
+
+/** Reads the events of a file one at a time, so the file never has to fit in memory. */
+interface EventRowReader extends Closeable {
+
+    /**
+     * The next event, or null at the end of the file.
+     *
+     * @throws IllegalArgumentException when the file is malformed and reading cannot go on
+     */
+    EventRow next();
+}
@@ -0,0 +1,34 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import java.io.Reader;
+import java.util.Locale;
+
+/** The file formats events can be imported from. */
+public enum ImportFormat {
+    CSV, JSON;
+
+    EventRowReader open(Reader reader) {
+        return this == CSV ? new CsvEventReader(reader) : new JsonEventReader(reader);
+    }
+
+    /**
+     * Works the format out from a name such as {@code csv}, a content type or a file name.
+     *
+     * @throws IllegalArgumentException when none of them gives it away
+     */
+    public static ImportFormat detect(String... hints) {
+        for (String hint : hints) {
+            if (hint == null) {
+                continue;
+            }
+            String lower = hint.toLowerCase(Locale.ROOT);
+            if (lower.equals("csv") || lower.endsWith(".csv") || lower.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (lower.equals("json") || lower.endsWith(".json") || lower.startsWith("application/json")) {
+                return JSON;
+            }
+        }
+        throw new IllegalArgumentException("Cannot tell whether the file is CSV or JSON");
+    }
+}
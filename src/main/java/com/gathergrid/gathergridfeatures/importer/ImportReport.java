@@ -0,0 +1,92 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What an import did: the events saved, the rows turned down and why, and the reason it stopped
+ * early if it did. Only the first {@code gathergrid.import.maxErrors} rejections are kept, the
+ * others are counted.
+ */
+public class ImportReport {
+    private static final int MAX_ERRORS = Integer.getInteger("gathergrid.import.maxErrors", 1000);
+
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+    private String abortedBecause;
+    private long millis;
+
+    /** A rejected event, by its position in the file. */
+    public static class RowError {
+        private final long record;
+        private final long line;
+        private final String message;
+
+        RowError(long record, long line, String message) {
+            this.record = record;
+            this.line = line;
+            this.message = message;
+        }
+
+        /** The event's number in the file, from 1. */
+        public long getRecord() {
+            return record;
+        }
+
+        /** The line the event starts on. */
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    void failed(EventRow row, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row.record, row.line, message));
+        }
+    }
+
+    void abort(String reason) {
+        abortedBecause = reason;
+    }
+
+    void finish(long millis) {
+        this.millis = millis;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /** True when more rows failed than {@link #getErrors()} lists. */
+    public boolean isErrorListTruncated() {
+        return failed > errors.size();
+    }
+
+    /** Why the rest of the file was not read, or null when it was read to the end. */
+    public String getAbortedBecause() {
+        return abortedBecause;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+}
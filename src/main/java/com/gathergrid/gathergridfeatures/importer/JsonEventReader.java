@@ -0,0 +1,93 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser;
+
+import java.io.Reader;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads events from a JSON array of objects such as
+ * <pre>
+ * {"name": "...", "date": "2024-06-01T20:00", "address": "...", "description": "...",
+ *  "category": "Music", "tickets": [{"type": "VIP", "price": 120, "quantity": 50}]}
+ * </pre>
+ * The array is walked with a streaming parser, so only one event object is in memory at a time.
+ */
+class JsonEventReader implements EventRowReader {
+    private final JsonParser parser;
+    private long record;
+    private boolean done;
+
+    JsonEventReader(Reader reader) {
+        this.parser = Json.createParser(reader);
+        try {
+            if (!parser.hasNext() || parser.next() != JsonParser.Event.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of events");
+            }
+        } catch (JsonException e) {
+            throw new IllegalArgumentException("Not valid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public EventRow next() {
+        if (done) {
+            return null;
+        }
+        try {
+            JsonParser.Event event = parser.next();
+            if (event == JsonParser.Event.END_ARRAY) {
+                done = true;
+                return null;
+            }
+            long line = parser.getLocation().getLineNumber();
+            if (event != JsonParser.Event.START_OBJECT) {
+                throw new IllegalArgumentException("Expected an event object on line " + line);
+            }
+            JsonObject object = parser.getObject();
+            EventRow row = new EventRow(++record, line);
+            row.name = text(object.get("name"));
+            row.date = text(object.get("date"));
+            row.address = text(object.get("address"));
+            row.description = text(object.get("description"));
+            row.category = text(object.get("category"));
+            JsonValue tickets = object.get("tickets");
+            if (tickets instanceof JsonArray) {
+                for (JsonValue ticket : (JsonArray) tickets) {
+                    if (ticket instanceof JsonObject) {
+                        JsonObject tier = (JsonObject) ticket;
+                        row.tickets.add(new EventRow.TicketRow(text(tier.get("type")), text(tier.get("price")),
+                                text(tier.get("quantity"))));
+                    } else {
+                        row.tickets.add(new EventRow.TicketRow(null, null, null));
+                    }
+                }
+            }
+            return row;
+        } catch (JsonException | NoSuchElementException e) {
+            throw new IllegalArgumentException("Not valid JSON after event " + record + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        parser.close();
+    }
+
+    private static String text(JsonValue value) {
+        if (value == null || value == JsonValue.NULL) {
+            return null;
+        }
+        if (value instanceof JsonString) {
+            String text = ((JsonString) value).getString();
+            return text.isBlank() ? null : text;
+        }
+        return value.toString();
+    }
+}
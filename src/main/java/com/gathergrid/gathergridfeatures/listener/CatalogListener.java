@@ -0,0 +1,34 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.search.EventCatalog;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import java.time.LocalDateTime;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+@WebListener
+public class CatalogListener implements ServletContextListener {
+    private static final Logger LOGGER = Logger.getLogger(CatalogListener.class.getName());
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        long start = System.nanoTime();
+        EventCatalog catalog = EventCatalog.getInstance();
+        LocalDateTime horizon = LocalDateTime.now();
+        try (Stream<EventSummary> events = new EventRepositoryImpl().streamEventSummaries(horizon)) {
+            catalog.load(horizon, events);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+        StartupTimings.record("event catalog", System.nanoTime() - start);
+        LOGGER.info(() -> "Event catalog loaded with " + catalog.size() + " upcoming events in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,19 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.service.CommentIngestion;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+@WebListener
+public class CommentIngestionListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        CommentIngestion.getInstance().start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        CommentIngestion.getInstance().stop();
+    }
+}
@@ -0,0 +1,17 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.controller.AsyncRequests;
+import com.gathergrid.gathergridfeatures.utils.DatabaseExecutor;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+@WebListener
+public class DatabaseExecutorListener implements ServletContextListener {
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        DatabaseExecutor.getInstance().shutdown();
+        DatabaseExecutor.forSignIns().shutdown();
+        AsyncRequests.shutdown();
+    }
+}
@@ -0,0 +1,17 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+/**
+ * Builds the persistence unit and migrates or validates the schema before any other listener
+ * reads the database. Declared in web.xml rather than annotated, since listeners from the
+ * descriptor run first and in order.
+ */
+public class DatabaseListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        EntityManagerUtil.start();
+    }
+}
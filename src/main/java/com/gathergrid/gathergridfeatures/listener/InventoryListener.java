@@ -0,0 +1,20 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.service.TicketInventory;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+@WebListener
+public class InventoryListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        StartupTimings.time("ticket inventory", TicketInventory.getInstance()::start);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        TicketInventory.getInstance().stop();
+    }
+}
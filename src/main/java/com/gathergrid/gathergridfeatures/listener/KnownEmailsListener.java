@@ -0,0 +1,27 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.UserRepository;
+import com.gathergrid.gathergridfeatures.service.KnownEmails;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import java.util.stream.Stream;
+
+@WebListener
+public class KnownEmailsListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        UserRepository<User> userRepository = new UserRepository<>();
+        StartupTimings.time("known emails", () -> {
+            try (Stream<String> emails = userRepository.streamEmails()) {
+                KnownEmails.getInstance().load(userRepository.countUsers(), emails);
+            } finally {
+                EntityManagerUtil.closeEntityManager();
+            }
+        });
+    }
+}
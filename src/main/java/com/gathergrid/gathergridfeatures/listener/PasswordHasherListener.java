@@ -0,0 +1,20 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.service.PasswordHasher;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+@WebListener
+public class PasswordHasherListener implements ServletContextListener {
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        StartupTimings.time("password hasher calibration", PasswordHasher.getInstance()::calibrate);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        PasswordHasher.getInstance().shutdown();
+    }
+}
@@ -0,0 +1,32 @@
+package com.gathergrid.gathergridfeatures.listener;
+
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.search.EventSearchIndex;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+@WebListener
+public class SearchIndexListener implements ServletContextListener {
+    private static final Logger LOGGER = Logger.getLogger(SearchIndexListener.class.getName());
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        long start = System.nanoTime();
+        EventSearchIndex index = EventSearchIndex.getInstance();
+        try (Stream<EventSummary> events = new EventRepositoryImpl().streamEventSummaries()) {
+            index.rebuild(events);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+        StartupTimings.record("search index", System.nanoTime() - start);
+        LOGGER.info(() -> "Search index built with " + index.size() + " events in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
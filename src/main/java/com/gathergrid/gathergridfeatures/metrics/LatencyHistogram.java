@@ -0,0 +1,92 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram with log-linear buckets, in the spirit of HdrHistogram: bucket
+ * bounds start at 100 µs and grow by √2, so every bucket is at most 41% wider than the one below
+ * it, up to about 74 s. Recording is a binary search over 40 bounds and one {@link LongAdder}
+ * increment, cheap enough to leave on for every request.
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS_NANOS = new long[40];
+
+    static {
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            BOUNDS_NANOS[i] = Math.round(100_000 * Math.pow(2, i / 2.0));
+        }
+    }
+
+    // one more than the bounds: the last bucket holds everything slower
+    private final LongAdder[] counts = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = Arrays.binarySearch(BOUNDS_NANOS, nanos);
+        counts[bucket < 0 ? -bucket - 1 : bucket].increment();
+        sumNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /** Upper bounds of the buckets in nanoseconds, without the final unbounded one. */
+    public static long[] getBoundsNanos() {
+        return BOUNDS_NANOS.clone();
+    }
+
+    /** Count per bucket, not cumulative; the last entry is the unbounded bucket. */
+    public long[] getCounts() {
+        long[] snapshot = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : counts) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * The upper bound of the bucket holding the given quantile, so at most 41% above the true
+     * value; the maximum once it falls in the unbounded bucket. 0 when nothing was recorded.
+     */
+    public long getQuantileNanos(double quantile) {
+        long[] snapshot = getCounts();
+        long total = Arrays.stream(snapshot).sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(BOUNDS_NANOS[i], getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+}
@@ -0,0 +1,171 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import com.gathergrid.gathergridfeatures.filter.PageCache;
+import com.gathergrid.gathergridfeatures.service.CommentIngestion;
+import com.gathergrid.gathergridfeatures.service.PasswordHasher;
+import com.gathergrid.gathergridfeatures.utils.ConnectionPoolMetrics;
+import com.gathergrid.gathergridfeatures.utils.DatabaseExecutor;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.StartupTimings;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+
+/**
+ * Renders everything the application measures for a Prometheus scrape: per-route request
+ * metrics from {@link RequestMetrics}, Hibernate's {@link Statistics}, the Hikari pool gauges of
+ * {@link ConnectionPoolMetrics}, the queues of the background executors, the {@link PageCache}
+ * and the {@link StartupTimings} of this deployment.
+ */
+public class PrometheusExporter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final RequestMetrics requestMetrics;
+
+    public PrometheusExporter() {
+        this(RequestMetrics.getInstance());
+    }
+
+    PrometheusExporter(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
+
+    public String export() {
+        StringBuilder out = new StringBuilder(16 * 1024);
+        PrometheusWriter writer = new PrometheusWriter(out);
+        writeRequests(writer);
+        writeHibernate(writer, EntityManagerUtil.getStatistics());
+        writePool(writer);
+        writeExecutors(writer);
+        writePageCache(writer, PageCache.getInstance());
+        writeStartup(writer);
+        return out.toString();
+    }
+
+    private void writeRequests(PrometheusWriter writer) {
+        List<RouteMetrics> routes = requestMetrics.getRoutes();
+
+        writer.header("gathergrid_http_request_duration_seconds", "histogram", "Time to complete a request, by servlet mapping.");
+        for (RouteMetrics route : routes) {
+            writer.histogram("gathergrid_http_request_duration_seconds", PrometheusWriter.label("route", route.getRoute()), route.getLatency());
+        }
+
+        writer.header("gathergrid_http_requests_total", "counter", "Completed requests, by servlet mapping and status class.");
+        for (RouteMetrics route : routes) {
+            for (int statusClass = 1; statusClass <= 5; statusClass++) {
+                long count = route.getStatusCount(statusClass);
+                if (count > 0) {
+                    writer.sample("gathergrid_http_requests_total", PrometheusWriter.label("route", route.getRoute())
+                            + "," + PrometheusWriter.label("status", statusClass + "xx"), count);
+                }
+            }
+        }
+
+        writer.header("gathergrid_http_requests_in_flight", "gauge", "Requests being served right now, by servlet mapping.");
+        for (RouteMetrics route : routes) {
+            writer.sample("gathergrid_http_requests_in_flight", PrometheusWriter.label("route", route.getRoute()), route.getInFlight());
+        }
+
+        writer.header("gathergrid_http_response_size_bytes", "counter", "Body bytes written, counting characters for text responses, by servlet mapping.");
+        for (RouteMetrics route : routes) {
+            writer.sample("gathergrid_http_response_size_bytes", PrometheusWriter.label("route", route.getRoute()), route.getResponseBytes());
+        }
+    }
+
+    private static void writeHibernate(PrometheusWriter writer, Statistics statistics) {
+        writer.counter("gathergrid_hibernate_sessions_opened_total", "Sessions opened.", statistics.getSessionOpenCount());
+        writer.counter("gathergrid_hibernate_transactions_total", "Transactions completed.", statistics.getTransactionCount());
+        writer.counter("gathergrid_hibernate_flushes_total", "Session flushes.", statistics.getFlushCount());
+        writer.counter("gathergrid_hibernate_statements_prepared_total", "JDBC statements prepared.", statistics.getPrepareStatementCount());
+        writer.counter("gathergrid_hibernate_queries_executed_total", "HQL and native queries executed.", statistics.getQueryExecutionCount());
+        writer.gauge("gathergrid_hibernate_query_execution_max_seconds", "Slowest query since startup.", statistics.getQueryExecutionMaxTime() / 1e3);
+
+        writer.header("gathergrid_hibernate_entity_operations_total", "counter", "Entity loads, fetches, inserts, updates and deletes.");
+        writer.sample("gathergrid_hibernate_entity_operations_total", PrometheusWriter.label("operation", "load"), statistics.getEntityLoadCount());
+        writer.sample("gathergrid_hibernate_entity_operations_total", PrometheusWriter.label("operation", "fetch"), statistics.getEntityFetchCount());
+        writer.sample("gathergrid_hibernate_entity_operations_total", PrometheusWriter.label("operation", "insert"), statistics.getEntityInsertCount());
+        writer.sample("gathergrid_hibernate_entity_operations_total", PrometheusWriter.label("operation", "update"), statistics.getEntityUpdateCount());
+        writer.sample("gathergrid_hibernate_entity_operations_total", PrometheusWriter.label("operation", "delete"), statistics.getEntityDeleteCount());
+
+        writer.header("gathergrid_hibernate_collection_operations_total", "counter", "Collection loads and fetches.");
+        writer.sample("gathergrid_hibernate_collection_operations_total", PrometheusWriter.label("operation", "load"), statistics.getCollectionLoadCount());
+        writer.sample("gathergrid_hibernate_collection_operations_total", PrometheusWriter.label("operation", "fetch"), statistics.getCollectionFetchCount());
+
+        writer.header("gathergrid_hibernate_cache_requests_total", "counter", "Second-level, query and natural-id cache lookups and puts.");
+        cache(writer, "second_level", statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount());
+        cache(writer, "query", statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount());
+        cache(writer, "natural_id", statistics.getNaturalIdCacheHitCount(), statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount());
+
+        writer.counter("gathergrid_hibernate_optimistic_failures_total", "Optimistic lock failures.", statistics.getOptimisticFailureCount());
+    }
+
+    private static void cache(PrometheusWriter writer, String cache, long hits, long misses, long puts) {
+        String label = PrometheusWriter.label("cache", cache);
+        writer.sample("gathergrid_hibernate_cache_requests_total", label + "," + PrometheusWriter.label("result", "hit"), hits);
+        writer.sample("gathergrid_hibernate_cache_requests_total", label + "," + PrometheusWriter.label("result", "miss"), misses);
+        writer.sample("gathergrid_hibernate_cache_requests_total", label + "," + PrometheusWriter.label("result", "put"), puts);
+    }
+
+    private static void writePool(PrometheusWriter writer) {
+        writer.header("gathergrid_db_pool_connections", "gauge", "Hikari connections by state.");
+        writer.sample("gathergrid_db_pool_connections", PrometheusWriter.label("state", "active"), ConnectionPoolMetrics.getActiveConnections());
+        writer.sample("gathergrid_db_pool_connections", PrometheusWriter.label("state", "idle"), ConnectionPoolMetrics.getIdleConnections());
+        writer.gauge("gathergrid_db_pool_connections_max", "Largest size the pool may grow to.", ConnectionPoolMetrics.getMaxConnections());
+        writer.gauge("gathergrid_db_pool_pending_threads", "Threads waiting for a connection.", ConnectionPoolMetrics.getThreadsAwaitingConnection());
+        writer.counter("gathergrid_db_pool_acquire_total", "Connections handed out.", ConnectionPoolMetrics.getAcquireCount());
+        writer.counter("gathergrid_db_pool_acquire_seconds_total", "Time spent waiting for connections.", ConnectionPoolMetrics.getAcquireTotalMicros() / 1e6);
+        writer.gauge("gathergrid_db_pool_acquire_max_seconds", "Longest wait for a connection since startup.", ConnectionPoolMetrics.getMaxAcquireMicros() / 1e6);
+        writer.counter("gathergrid_db_pool_timeouts_total", "Connection requests that timed out.", ConnectionPoolMetrics.getTimeouts());
+    }
+
+    private static void writeExecutors(PrometheusWriter writer) {
+        DatabaseExecutor database = DatabaseExecutor.getInstance();
+        DatabaseExecutor signIns = DatabaseExecutor.forSignIns();
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        CommentIngestion comments = CommentIngestion.getInstance();
+        String db = PrometheusWriter.label("executor", "database");
+        String signIn = PrometheusWriter.label("executor", "sign_in");
+        String hashing = PrometheusWriter.label("executor", "password_hasher");
+        String writerQueue = PrometheusWriter.label("executor", "comment_writer");
+
+        writer.header("gathergrid_executor_queue_depth", "gauge", "Tasks waiting for a thread.");
+        writer.sample("gathergrid_executor_queue_depth", db, database.getQueueDepth());
+        writer.sample("gathergrid_executor_queue_depth", signIn, signIns.getQueueDepth());
+        writer.sample("gathergrid_executor_queue_depth", hashing, hasher.getQueueDepth());
+        writer.sample("gathergrid_executor_queue_depth", writerQueue, comments.getQueueDepth());
+
+        writer.header("gathergrid_executor_queue_capacity", "gauge", "Most tasks that may wait before new ones are refused.");
+        writer.sample("gathergrid_executor_queue_capacity", db, database.getQueueCapacity());
+        writer.sample("gathergrid_executor_queue_capacity", signIn, signIns.getQueueCapacity());
+        writer.sample("gathergrid_executor_queue_capacity", hashing, hasher.getQueueCapacity());
+        writer.sample("gathergrid_executor_queue_capacity", writerQueue, comments.getQueueCapacity());
+
+        writer.header("gathergrid_executor_active_threads", "gauge", "Threads running a task.");
+        writer.sample("gathergrid_executor_active_threads", db, database.getActiveCount());
+        writer.sample("gathergrid_executor_active_threads", signIn, signIns.getActiveCount());
+        writer.sample("gathergrid_executor_active_threads", hashing, hasher.getActiveCount());
+
+        writer.header("gathergrid_executor_threads", "gauge", "Threads in the pool.");
+        writer.sample("gathergrid_executor_threads", db, database.getPoolSize());
+        writer.sample("gathergrid_executor_threads", signIn, signIns.getPoolSize());
+        writer.sample("gathergrid_executor_threads", hashing, hasher.getPoolSize());
+
+        writer.counter("gathergrid_executor_database_completed_total", "Tasks finished by the database executor.", database.getCompletedTaskCount());
+        writer.counter("gathergrid_executor_database_rejected_total", "Tasks refused because the database executor was full.", database.getRejectedCount());
+        writer.counter("gathergrid_executor_sign_in_rejected_total", "Sign-ins and sign-ups refused because their executor was full.", signIns.getRejectedCount());
+    }
+
+    private static void writePageCache(PrometheusWriter writer, PageCache cache) {
+        writer.counter("gathergrid_page_cache_hits_total", "Pages served from memory.", cache.getHits());
+        writer.counter("gathergrid_page_cache_misses_total", "Pages that had to be rendered.", cache.getMisses());
+        writer.counter("gathergrid_page_cache_evictions_total", "Pages dropped to stay within the limits.", cache.getEvictions());
+        writer.gauge("gathergrid_page_cache_entries", "Pages held.", cache.size());
+        writer.gauge("gathergrid_page_cache_bytes", "Bytes of pages held.", cache.getBytes());
+    }
+
+    private static void writeStartup(PrometheusWriter writer) {
+        writer.header("gathergrid_startup_phase_seconds", "gauge", "Time taken by each phase of the deployment.");
+        StartupTimings.getPhases().forEach((phase, nanos) ->
+                writer.sample("gathergrid_startup_phase_seconds", PrometheusWriter.label("phase", phase), nanos / 1e9));
+    }
+}
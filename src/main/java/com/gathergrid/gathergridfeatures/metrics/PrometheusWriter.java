@@ -0,0 +1,66 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import java.math.BigDecimal;
+
+/** Appends samples in the Prometheus text exposition format, version 0.0.4. */
+final class PrometheusWriter {
+    private final StringBuilder out;
+
+    PrometheusWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    void header(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    void sample(String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    void gauge(String name, String help, double value) {
+        header(name, "gauge", help);
+        sample(name, "", value);
+    }
+
+    void counter(String name, String help, double value) {
+        header(name, "counter", help);
+        sample(name, "", value);
+    }
+
+    /** Cumulative {@code _bucket} samples in seconds plus {@code _sum} and {@code _count}, without the header. */
+    void histogram(String name, String labels, LatencyHistogram histogram) {
+        long[] bounds = LatencyHistogram.getBoundsNanos();
+        long[] counts = histogram.getCounts();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += counts[i];
+            sample(name + "_bucket", prefix + "le=\"" + seconds(bounds[i]) + "\"", cumulative);
+        }
+        cumulative += counts[bounds.length];
+        sample(name + "_bucket", prefix + "le=\"+Inf\"", cumulative);
+        sample(name + "_sum", labels, histogram.getSumNanos() / 1e9);
+        sample(name + "_count", labels, cumulative);
+    }
+
+    static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos).movePointLeft(9).stripTrailingZeros().toPlainString();
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link RouteMetrics} of every servlet mapping that has served a request. Routes are keyed
+ * by mapping pattern rather than by URI, so their number stays bounded whatever clients request.
+ */
+public class RequestMetrics {
+    private static final RequestMetrics INSTANCE = new RequestMetrics();
+
+    private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    RequestMetrics() {}
+
+    public static RequestMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    public RouteMetrics route(String route) {
+        RouteMetrics metrics = routes.get(route);
+        return metrics != null ? metrics : routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    /** Sorted by route, so the exposition is stable between scrapes. */
+    public List<RouteMetrics> getRoutes() {
+        List<RouteMetrics> sorted = new ArrayList<>(routes.values());
+        sorted.sort(Comparator.comparing(RouteMetrics::getRoute));
+        return sorted;
+    }
+}
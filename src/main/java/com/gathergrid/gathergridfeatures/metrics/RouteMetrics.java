@@ -0,0 +1,57 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latency, in-flight count, status classes and response sizes of one servlet mapping. */
+public class RouteMetrics {
+    private final String route;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // index 1 to 5 for 1xx to 5xx
+    private final LongAdder[] statuses = new LongAdder[6];
+    private final LongAdder responseBytes = new LongAdder();
+
+    RouteMetrics(String route) {
+        this.route = route;
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = new LongAdder();
+        }
+    }
+
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    public void end(long nanos, int status, long bytes) {
+        inFlight.decrementAndGet();
+        latency.record(nanos);
+        statuses[status >= 100 && status < 600 ? status / 100 : 5].increment();
+        responseBytes.add(bytes);
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** Requests answered with a status of the given class, 2 for 2xx and so on. */
+    public long getStatusCount(int statusClass) {
+        return statuses[statusClass].sum();
+    }
+
+    public long getErrorCount() {
+        return statuses[5].sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+}
@@ -0,0 +1,74 @@
+package com.gathergrid.gathergridfeatures.repository;
+
+import com.gathergrid.gathergridfeatures.domain.EventRating;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EventRatingRepository {
+
+    /** Served from the second-level cache once loaded. */
+    public EventRating find(long eventId) {
+        return EntityManagerUtil.getEntityManager().find(EventRating.class, eventId);
+    }
+
+    /** Ratings of several events, reading the cache first and fetching the misses in one query. */
+    public Map<Long, EventRating> findAll(List<Long> eventIds) {
+        Map<Long, EventRating> ratings = new HashMap<>();
+        if (eventIds.isEmpty()) {
+            return ratings;
+        }
+        List<EventRating> found = EntityManagerUtil.getEntityManager().unwrap(Session.class)
+                .byMultipleIds(EventRating.class)
+                .multiLoad(eventIds);
+        for (EventRating rating : found) {
+            if (rating != null) {
+                ratings.put(rating.getEventId(), rating);
+            }
+        }
+        return ratings;
+    }
+
+    /**
+     * The event's rating row, locked until the surrounding transaction ends. Concurrent comments
+     * on the same event therefore apply their changes one after another.
+     * <p>
+     * Events saved through the repository come with their row, and the V5 migration gave one to
+     * older events. A row still missing is created in a transaction of its own before the lock is
+     * taken, so two first comments racing to create it only cost one of them a duplicate key. The
+     * check is a plain read: a locking read of the missing row would hold a gap lock on InnoDB that
+     * the insert on the other connection then waits on until the lock wait timeout.
+     */
+    public EventRating lock(EntityManager em, long eventId) {
+        boolean exists = !em.createQuery("SELECT r.eventId FROM EventRating r WHERE r.eventId = :eventId", Long.class)
+                .setParameter("eventId", eventId)
+                .getResultList()
+                .isEmpty();
+        if (!exists) {
+            createIfMissing(eventId);
+        }
+        return em.find(EventRating.class, eventId, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private static void createIfMissing(long eventId) {
+        try {
+            EntityManagerUtil.runInNewTransaction(em -> {
+                if (em.find(EventRating.class, eventId) == null) {
+                    em.persist(new EventRating(eventId));
+                }
+            });
+        } catch (PersistenceException e) {
+            // created concurrently: the primary key has the last word
+            if (!(e.getCause() instanceof ConstraintViolationException || e instanceof ConstraintViolationException)) {
+                throw e;
+            }
+        }
+    }
+}
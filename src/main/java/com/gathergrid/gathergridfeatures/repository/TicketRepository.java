@@ -1,57 +1,118 @@
 package com.gathergrid.gathergridfeatures.repository;
 
-import com.gathergrid.gathergridfeatures.domain.Event;
 import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
 import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
 
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.OptionalInt;
 
 public class TicketRepository {
-    private final EntityManager entityManager;
-    public TicketRepository(){
-        entityManager = EntityManagerUtil.getEntityManager();
-    }
 
     public Ticket save(Ticket ticket){
-        entityManager.getTransaction().begin();
-        entityManager.persist(ticket);
-        entityManager.getTransaction().commit();
+        SlowQueryLog.timed("TicketRepository.save", () -> EntityManagerUtil.runInTransaction(em -> {
+            em.persist(ticket);
+            CatalogVersion.bumpAfterCommit(em);
+        }));
         return ticket;
     }
 
+    public List<Ticket> saveAll(List<Ticket> tickets){
+        SlowQueryLog.timed("TicketRepository.saveAll", () -> EntityManagerUtil.runInTransaction(em -> {
+            EntityManagerUtil.persistInBatches(tickets);
+            CatalogVersion.bumpAfterCommit(em);
+        }));
+        return tickets;
+    }
+
     public void update(Ticket ticket){
-        entityManager.getTransaction().begin();
-        entityManager.merge(ticket);
-        entityManager.getTransaction().commit();
+        SlowQueryLog.timed("TicketRepository.update", () -> EntityManagerUtil.runInTransaction(em -> {
+            em.merge(ticket);
+            CatalogVersion.bumpAfterCommit(em);
+        }));
+    }
+
+    /** The ticket, its row locked until the surrounding transaction ends; null when it does not exist. */
+    public Ticket lock(long id){
+        return SlowQueryLog.timed("TicketRepository.lock",
+                () -> EntityManagerUtil.getEntityManager().find(Ticket.class, id, LockModeType.PESSIMISTIC_WRITE));
     }
 
     public void delete(long id){
-        Ticket ticket = find(id);
-        if (ticket == null) {
-            return;
-        }
-        entityManager.getTransaction().begin();
-        entityManager.remove(ticket);
+        SlowQueryLog.timed("TicketRepository.delete", () -> EntityManagerUtil.runInTransaction(em -> {
+            Ticket ticket = em.find(Ticket.class, id);
+            if (ticket != null) {
+                em.remove(ticket);
+                CatalogVersion.bumpAfterCommit(em);
+            }
+        }));
+    }
+
+    /**
+     * Loads the stock of a ticket for {@link com.gathergrid.gathergridfeatures.service.TicketInventory}.
+     * Reservations made after the last write-behind flush are not reflected in quantityAvailable yet,
+     * so they are subtracted here. The first time a ticket is loaded its flush marker is set to
+     * {@code loadedAt}. Empty when the ticket does not exist.
+     */
+    public OptionalInt loadAvailableQuantity(long id, LocalDateTime loadedAt){
+        return EntityManagerUtil.executeInTransaction(em -> {
+            Ticket ticket = em.find(Ticket.class, id, LockModeType.PESSIMISTIC_WRITE);
+            if (ticket == null) {
+                return OptionalInt.empty();
+            }
+            if (ticket.getInventoryFlushedAt() == null) {
+                ticket.setInventoryFlushedAt(loadedAt);
+                return OptionalInt.of(ticket.getQuantityAvailable());
+            }
+            Long unflushed = SlowQueryLog.single("TicketRepository.loadAvailableQuantity", em.createQuery(
+                            "SELECT COUNT(r) FROM Reservation r WHERE r.ticket.id = :id AND r.reservationDate > :flushedAt", Long.class)
+                    .setParameter("id", id)
+                    .setParameter("flushedAt", ticket.getInventoryFlushedAt()));
+            return OptionalInt.of(Math.max(0, ticket.getQuantityAvailable() - unflushed.intValue()));
+        });
+    }
+
+    /**
+     * Applies the net stock changes accumulated in memory as one JDBC batch and stamps each
+     * ticket with the flush time. The pages do not show stock, so the catalog version stays put.
+     */
+    public void applyQuantityDeltas(Map<Long, Integer> deltas, LocalDateTime flushedAt){
+        SlowQueryLog.timed("TicketRepository.applyQuantityDeltas", () -> EntityManagerUtil.runInTransaction(em -> em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE tickets SET quantityAvailable = quantityAvailable - ?, inventoryFlushedAt = ? WHERE id = ?")) {
+                for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+                    statement.setInt(1, delta.getValue());
+                    statement.setTimestamp(2, Timestamp.valueOf(flushedAt));
+                    statement.setLong(3, delta.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        })));
     }
 
     public Ticket find(long id){
-        return entityManager.find(Ticket.class, id);
+        return SlowQueryLog.timed("TicketRepository.find", () -> EntityManagerUtil.getEntityManager().find(Ticket.class, id));
     }
 
     public List<Ticket> findAll(){
         String jpqlQuery = "SELECT t FROM Ticket t";
-        TypedQuery<Ticket> query = entityManager.createQuery(jpqlQuery, Ticket.class);
-        return query.getResultList();
+        TypedQuery<Ticket> query = EntityManagerUtil.getEntityManager().createQuery(jpqlQuery, Ticket.class);
+        return SlowQueryLog.list("TicketRepository.findAll", query);
     }
 
     public List<Ticket> finAllEventTickets(Long id){
-        String jpqlQuery = "SELECT t FROM Ticket t join Event e on t.event.id = :id";
-        TypedQuery<Ticket> query = entityManager.createQuery(jpqlQuery, Ticket.class).setParameter("id", id);
-        return query.getResultList();
+        String jpqlQuery = "SELECT t FROM Ticket t WHERE t.event.id = :id";
+        TypedQuery<Ticket> query = EntityManagerUtil.getEntityManager().createQuery(jpqlQuery, Ticket.class).setParameter("id", id);
+        return SlowQueryLog.list("TicketRepository.finAllEventTickets", query);
     }
 
 }
@@ -6,8 +6,11 @@ import java.util.List;
 
 public interface CommentRepositry {
     public Comment save(Comment c);
+    public List<Comment> saveAll(List<Comment> comments);
     public Comment findById(Long id);
     public Comment update(Comment c);
     public void delete(Long comment_id);
     public List<Comment> show(Long event_id);
+    // newest first, starting below afterId (null for the first page)
+    public List<Comment> show(Long event_id, Long afterId, int limit);
 }
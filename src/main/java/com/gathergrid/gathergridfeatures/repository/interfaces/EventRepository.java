@@ -1,9 +1,12 @@
 package com.gathergrid.gathergridfeatures.repository.interfaces;
 
 import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.utils.EventCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface EventRepository {
     public Event save(Event event);
@@ -12,5 +15,16 @@ public interface EventRepository {
     public Event find(long id);
     public List<Event> findAll();
     public List<Event> fetchCreatedEventOfUser(Long user_id);
-    public List<Event> findEventsByCriteria(LocalDateTime fromDate, LocalDateTime toDate, String name, Long categoryId);
+
+    // keyset-paginated variants: rows ordered by (date, id) starting after the cursor (null for the first page)
+    public List<Event> findAll(EventCursor after, int limit);
+    public List<Event> fetchCreatedEventOfUser(Long user_id, EventCursor after, int limit);
+    public List<EventSummary> findEventSummariesByCriteria(LocalDateTime fromDate, LocalDateTime toDate, Long categoryId, EventCursor after, int limit);
+
+    // full-text search: the events among ids that pass the filters, in no particular order
+    public List<EventSummary> findEventSummariesByIds(List<Long> ids, LocalDateTime fromDate, LocalDateTime toDate, Long categoryId);
+    // every event, read with a forward cursor to rebuild the search index
+    public Stream<EventSummary> streamEventSummaries();
+    // events dated from fromDate on, in keyset order, to load the catalog snapshot
+    public Stream<EventSummary> streamEventSummaries(LocalDateTime fromDate);
 }
@@ -2,52 +2,52 @@ package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
 
 import com.gathergrid.gathergridfeatures.domain.Category;
 import com.gathergrid.gathergridfeatures.repository.interfaces.CategoryRepository;
-import jakarta.persistence.EntityManager;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
 
 import java.util.List;
 
 public class CategoryRepositoryImpl implements CategoryRepository {
-    private final EntityManager em;
-
-    public CategoryRepositoryImpl(EntityManager em) {
-        this.em = em;
-    }
 
     @Override
     public Category save(Category category) {
-        em.getTransaction().begin();
-        em.persist(category);
-        em.getTransaction().commit();
+        SlowQueryLog.timed("CategoryRepository.save", () -> EntityManagerUtil.runInTransaction(em -> {
+            em.persist(category);
+            CatalogVersion.bumpAfterCommit(em);
+        }));
         return category;
     }
 
     @Override
     public Category update(Category category) {
-        em.getTransaction().begin();
-        em.merge(category);
-        em.getTransaction().commit();
+        SlowQueryLog.timed("CategoryRepository.update", () -> EntityManagerUtil.runInTransaction(em -> {
+            em.merge(category);
+            CatalogVersion.bumpAfterCommit(em);
+        }));
         return category;
     }
 
     @Override
     public void delete(long id) {
-        em.getTransaction().begin();
-        Category category = em.find(Category.class, id);
-        if (category != null) {
-            em.remove(category);
-        }
-        em.getTransaction().commit();
+        SlowQueryLog.timed("CategoryRepository.delete", () -> EntityManagerUtil.runInTransaction(em -> {
+            Category category = em.find(Category.class, id);
+            if (category != null) {
+                em.remove(category);
+                CatalogVersion.bumpAfterCommit(em);
+            }
+        }));
     }
 
     @Override
     public Category find(long id) {
-        return em.find(Category.class, id);
+        return SlowQueryLog.timed("CategoryRepository.find", () -> EntityManagerUtil.getEntityManager().find(Category.class, id));
     }
 
     @Override
     public List<Category> findAll() {
         String jpql = "SELECT c FROM Category c";
-        return em.createQuery(jpql, Category.class)
-                .getResultList();
+        return SlowQueryLog.list("CategoryRepository.findAll", EntityManagerUtil.getEntityManager().createQuery(jpql, Category.class)
+                .setHint("org.hibernate.cacheable", true));
     }
 }
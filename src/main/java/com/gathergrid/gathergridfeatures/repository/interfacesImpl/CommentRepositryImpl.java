@@ -1,44 +1,113 @@
 package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
 
 import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.EventRating;
+import com.gathergrid.gathergridfeatures.repository.EventRatingRepository;
 import com.gathergrid.gathergridfeatures.repository.interfaces.CommentRepositry;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
 import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.Query;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+// every write also updates the event's EventRating in the same transaction; locks are always
+// taken comment first, then rating, so concurrent writers cannot deadlock
 public class CommentRepositryImpl implements CommentRepositry {
-    private final EntityManager em=EntityManagerUtil.getEntityManager();
+    private final EventRatingRepository ratingRepository = new EventRatingRepository();
+
     @Override
     public Comment save(Comment c) {
-        em.getTransaction().begin();
-        em.persist(c);
-        em.getTransaction().commit();
+        SlowQueryLog.timed("CommentRepositry.save", () -> EntityManagerUtil.runInTransaction(em -> {
+            EventRating rating = ratingRepository.lock(em, c.getEvent().getId());
+            em.persist(c);
+            rating.add(c.getRating());
+            CatalogVersion.bumpAfterCommit(em);
+        }));
         return c;
     }
 
+    @Override
+    public List<Comment> saveAll(List<Comment> comments) {
+        SlowQueryLog.timed("CommentRepositry.saveAll", () -> EntityManagerUtil.runInTransaction(em -> {
+            EntityManagerUtil.persistInBatches(comments);
+            // sorted by event id so two batches lock the rating rows in the same order
+            Map<Long, List<Comment>> byEvent = new TreeMap<>();
+            for (Comment comment : comments) {
+                byEvent.computeIfAbsent(comment.getEvent().getId(), id -> new ArrayList<>()).add(comment);
+            }
+            byEvent.forEach((eventId, eventComments) -> {
+                EventRating rating = ratingRepository.lock(em, eventId);
+                eventComments.forEach(comment -> rating.add(comment.getRating()));
+            });
+            CatalogVersion.bumpAfterCommit(em);
+        }));
+        return comments;
+    }
+
     @Override
     public Comment findById(Long id) {
-        return em.find(Comment.class,id);
+        return SlowQueryLog.timed("CommentRepositry.findById", () -> EntityManagerUtil.getEntityManager().find(Comment.class, id));
     }
     @Override
     public Comment update(Comment c) {
-         em.getTransaction().begin();
-         em.merge(c);
-         em.getTransaction().commit();
-         return c;
+        SlowQueryLog.timed("CommentRepositry.update", () -> EntityManagerUtil.runInTransaction(em -> {
+            // the stored values, not the persistence context's copy the caller may have edited already
+            List<Object[]> stored = em.createQuery(
+                            "SELECT c.rating, c.event.id FROM Comment c WHERE c.id = :id", Object[].class)
+                    .setParameter("id", c.getId())
+                    .setFlushMode(FlushModeType.COMMIT)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+            if (stored.isEmpty()) {
+                return;
+            }
+            int oldRating = (Integer) stored.get(0)[0];
+            long eventId = (Long) stored.get(0)[1];
+            EventRating rating = ratingRepository.lock(em, eventId);
+            Comment merged = em.merge(c);
+            rating.remove(oldRating);
+            if (merged.getEvent().getId() == eventId) {
+                rating.add(merged.getRating());
+            } else {
+                ratingRepository.lock(em, merged.getEvent().getId()).add(merged.getRating());
+            }
+            CatalogVersion.bumpAfterCommit(em);
+        }));
+        return c;
     }
 
     @Override
     public void delete(Long comment_id) {
-        Comment comment = em.find(Comment.class, comment_id);
-        em.remove(comment);
+        SlowQueryLog.timed("CommentRepositry.delete", () -> EntityManagerUtil.runInTransaction(em -> {
+            Comment comment = em.find(Comment.class, comment_id, LockModeType.PESSIMISTIC_WRITE);
+            if (comment != null) {
+                EventRating rating = ratingRepository.lock(em, comment.getEvent().getId());
+                em.remove(comment);
+                rating.remove(comment.getRating());
+                CatalogVersion.bumpAfterCommit(em);
+            }
+        }));
     }
     @Override
     public List<Comment> show(Long event_id) {
-        Query query = em.createQuery("select c from Comment c WHERE c.event.id = :event_id",Comment.class);
+        TypedQuery<Comment> query = EntityManagerUtil.getEntityManager().createQuery("select c from Comment c WHERE c.event.id = :event_id",Comment.class);
         query.setParameter("event_id", event_id);
-        return query.getResultList();
+        return SlowQueryLog.list("CommentRepositry.show", query);
+    }
+
+    @Override
+    public List<Comment> show(Long event_id, Long afterId, int limit) {
+        return SlowQueryLog.list("CommentRepositry.show", EntityManagerUtil.getEntityManager().createQuery(
+                        "select c from Comment c JOIN FETCH c.user WHERE c.event.id = :event_id " +
+                        "AND (:afterId IS NULL OR c.id < :afterId) ORDER BY c.id DESC", Comment.class)
+                .setParameter("event_id", event_id)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit));
     }
 }
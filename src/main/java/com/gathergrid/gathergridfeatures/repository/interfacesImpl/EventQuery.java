@@ -0,0 +1,158 @@
+package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
+
+import com.gathergrid.gathergridfeatures.utils.EventCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds event queries that contain only the filters actually given, so MySQL can pick the
+ * date, (category_id, date) or (organizer_id, date) index instead of scanning past
+ * {@code :x IS NULL OR ...} clauses. Each filter combination always yields the same JPQL
+ * string, generated once and cached per select, which also keeps Hibernate's query plan
+ * cache hit rate high.
+ */
+final class EventQuery {
+    private static final int FROM_DATE = 1;
+    private static final int TO_DATE = 1 << 1;
+    private static final int CATEGORY = 1 << 2;
+    private static final int ORGANIZER = 1 << 3;
+    private static final int IDS = 1 << 4;
+    private static final int AFTER = 1 << 5;
+    private static final int KEYSET_ORDER = 1 << 6;
+
+    enum Select {
+        EVENTS("SELECT e FROM Event e"),
+        EVENTS_WITH_CATEGORY("SELECT e FROM Event e LEFT JOIN FETCH e.category"),
+        SUMMARIES("SELECT new com.gathergrid.gathergridfeatures.domain.dto.EventSummary(" +
+                "e.id, e.name, e.date, e.address, e.description, c.id, c.name) " +
+                "FROM Event e LEFT JOIN e.category c");
+
+        private final String jpql;
+        private final Map<Integer, String> shapes = new ConcurrentHashMap<>();
+
+        Select(String jpql) {
+            this.jpql = jpql;
+        }
+    }
+
+    private final Select select;
+    private int filters;
+    private LocalDateTime fromDate;
+    private LocalDateTime toDate;
+    private Long categoryId;
+    private Long organizerId;
+    private List<Long> ids;
+    private EventCursor after;
+
+    private EventQuery(Select select) {
+        this.select = select;
+    }
+
+    static EventQuery select(Select select) {
+        return new EventQuery(select);
+    }
+
+    EventQuery fromDate(LocalDateTime fromDate) {
+        if (fromDate != null) {
+            filters |= FROM_DATE;
+            this.fromDate = fromDate;
+        }
+        return this;
+    }
+
+    EventQuery toDate(LocalDateTime toDate) {
+        if (toDate != null) {
+            filters |= TO_DATE;
+            this.toDate = toDate;
+        }
+        return this;
+    }
+
+    EventQuery category(Long categoryId) {
+        if (categoryId != null) {
+            filters |= CATEGORY;
+            this.categoryId = categoryId;
+        }
+        return this;
+    }
+
+    EventQuery organizer(Long organizerId) {
+        if (organizerId != null) {
+            filters |= ORGANIZER;
+            this.organizerId = organizerId;
+        }
+        return this;
+    }
+
+    EventQuery ids(List<Long> ids) {
+        filters |= IDS;
+        this.ids = ids;
+        return this;
+    }
+
+    /** Orders by (date, id) and, when a cursor is given, starts right after it. */
+    EventQuery keyset(EventCursor after) {
+        filters |= KEYSET_ORDER;
+        if (after != null) {
+            filters |= AFTER;
+            this.after = after;
+        }
+        return this;
+    }
+
+    <T> TypedQuery<T> create(EntityManager em, Class<T> type) {
+        TypedQuery<T> query = em.createQuery(select.shapes.computeIfAbsent(filters, this::jpql), type);
+        if ((filters & FROM_DATE) != 0) {
+            query.setParameter("fromDate", fromDate);
+        }
+        if ((filters & TO_DATE) != 0) {
+            query.setParameter("toDate", toDate);
+        }
+        if ((filters & CATEGORY) != 0) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if ((filters & ORGANIZER) != 0) {
+            query.setParameter("organizerId", organizerId);
+        }
+        if ((filters & IDS) != 0) {
+            query.setParameter("ids", ids);
+        }
+        if ((filters & AFTER) != 0) {
+            query.setParameter("afterDate", after.getDate());
+            query.setParameter("afterId", after.getId());
+        }
+        return query;
+    }
+
+    private String jpql(int filters) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if ((filters & FROM_DATE) != 0) {
+            where.add("e.date >= :fromDate");
+        }
+        if ((filters & TO_DATE) != 0) {
+            where.add("e.date <= :toDate");
+        }
+        // the foreign key column itself, no join needed
+        if ((filters & CATEGORY) != 0) {
+            where.add("e.category.id = :categoryId");
+        }
+        if ((filters & ORGANIZER) != 0) {
+            where.add("e.organizer.id = :organizerId");
+        }
+        if ((filters & IDS) != 0) {
+            where.add("e.id IN :ids");
+        }
+        // the leading e.date >= bound gives the optimiser a range to seek to
+        if ((filters & AFTER) != 0) {
+            where.add("e.date >= :afterDate AND (e.date > :afterDate OR e.id > :afterId)");
+        }
+        String order = (filters & KEYSET_ORDER) != 0 ? " ORDER BY e.date, e.id" : "";
+        return select.jpql + where + order;
+    }
+}
@@ -1,84 +1,153 @@
 package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
 
 import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.EventRating;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
 import com.gathergrid.gathergridfeatures.repository.interfaces.EventRepository;
+import com.gathergrid.gathergridfeatures.search.EventCatalog;
+import com.gathergrid.gathergridfeatures.search.EventSearchIndex;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
 import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
+import com.gathergrid.gathergridfeatures.utils.EventCursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
-import jakarta.persistence.Query;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+// the search index, the in-memory catalog and the catalog version follow a write once it commits,
+// which for a write joined to a service's transaction is when that one commits
 public class EventRepositoryImpl implements EventRepository {
-    private final EntityManager em;
-
-    public EventRepositoryImpl(EntityManager em) {
-        this.em = em;
-    }
-
-    public EventRepositoryImpl() {
-        em = EntityManagerUtil.getEntityManager();
-    }
 
     @Override
     public Event save(Event event) {
-        em.getTransaction().begin();
-        em.persist(event);
-        em.getTransaction().commit();
+        SlowQueryLog.timed("EventRepository.save", () -> EntityManagerUtil.runInTransaction(em -> {
+            em.persist(event);
+            em.persist(new EventRating(event.getId()));
+            EntityManagerUtil.afterCommit(em, () -> indexed(event));
+        }));
         return event;
     }
 
     @Override
     public void delete(long id) {
-        em.getTransaction().begin();
-        Event event = em.find(Event.class, id);
-        if (event != null) {
-            em.remove(event);
-        }
-        em.getTransaction().commit();
+        SlowQueryLog.timed("EventRepository.delete", () -> EntityManagerUtil.runInTransaction(em -> {
+            Event event = em.find(Event.class, id);
+            if (event != null) {
+                em.remove(event);
+            }
+            EventRating rating = em.find(EventRating.class, id);
+            if (rating != null) {
+                em.remove(rating);
+            }
+            EntityManagerUtil.afterCommit(em, () -> {
+                EventSearchIndex.getInstance().remove(id);
+                EventCatalog.getInstance().remove(id);
+                CatalogVersion.bump();
+            });
+        }));
     }
 
     @Override
     public Event update(Event event) {
-        em.getTransaction().begin();
-        em.merge(event);
-        em.getTransaction().commit();
+        SlowQueryLog.timed("EventRepository.update", () -> EntityManagerUtil.runInTransaction(em -> {
+            em.merge(event);
+            EntityManagerUtil.afterCommit(em, () -> indexed(event));
+        }));
         return event;
     }
 
+    private static void indexed(Event event) {
+        EventSearchIndex.getInstance().index(event);
+        EventCatalog.getInstance().upsert(EventSummary.of(event));
+        CatalogVersion.bump();
+    }
+
     @Override
     public Event find(long id) {
-        return em.find(Event.class, id);
+        return SlowQueryLog.timed("EventRepository.find", () -> EntityManagerUtil.getEntityManager().find(Event.class, id));
     }
 
     @Override
     public List<Event> findAll() {
         String jpql = "SELECT e FROM Event e";
-        TypedQuery<Event> query = em.createQuery(jpql, Event.class);
-        return query.getResultList();
+        TypedQuery<Event> query = EntityManagerUtil.getEntityManager().createQuery(jpql, Event.class);
+        return SlowQueryLog.list("EventRepository.findAll", query);
     }
     @Override
     public List<Event> fetchCreatedEventOfUser(Long user_id) {
-        Query query = em.createQuery("select e from Event e where e.organizer.id = :user_id", Event.class);
+        TypedQuery<Event> query = EntityManagerUtil.getEntityManager().createQuery("select e from Event e where e.organizer.id = :user_id", Event.class);
         query.setParameter("user_id", user_id);
-        return query.getResultList();
+        return SlowQueryLog.list("EventRepository.fetchCreatedEventOfUser", query);
+    }
+
+    @Override
+    public List<Event> findAll(EventCursor after, int limit) {
+        return SlowQueryLog.list("EventRepository.findAll", EventQuery.select(EventQuery.Select.EVENTS)
+                .keyset(after)
+                .create(EntityManagerUtil.getEntityManager(), Event.class)
+                .setMaxResults(limit));
     }
 
+    /**
+     * Loads the page of events with their category in one query, then initialises the tickets of
+     * all of them with a second one, so the dashboard never lazy-loads per row.
+     */
     @Override
-    public List<Event> findEventsByCriteria(LocalDateTime fromDate, LocalDateTime toDate, String name, Long categoryId) {
-        String FIND_BY_CRITERIA =
-            "SELECT e FROM Event e " +
-            "WHERE (:fromDate IS NULL OR e.date >= :fromDate) " +
-            "AND (:toDate IS NULL OR e.date <= :toDate) " +
-            "AND (:name IS NULL OR e.name LIKE :name) " +
-            "AND (:categoryId IS NULL OR e.category.id = :categoryId)";
+    public List<Event> fetchCreatedEventOfUser(Long user_id, EventCursor after, int limit) {
+        EntityManager em = EntityManagerUtil.getEntityManager();
+        List<Event> events = SlowQueryLog.list("EventRepository.fetchCreatedEventOfUser", EventQuery.select(EventQuery.Select.EVENTS_WITH_CATEGORY)
+                .organizer(user_id)
+                .keyset(after)
+                .create(em, Event.class)
+                .setMaxResults(limit));
+        if (!events.isEmpty()) {
+            SlowQueryLog.list("EventRepository.fetchCreatedEventOfUser", em.createQuery(
+                            "SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.tickets WHERE e IN :events", Event.class)
+                    .setParameter("events", events));
+        }
+        return events;
+    }
 
-        return em.createQuery(FIND_BY_CRITERIA, Event.class)
-                .setParameter("fromDate", fromDate)
-                .setParameter("toDate", toDate)
-                .setParameter("name", "%" + name + "%")
-                .setParameter("categoryId", categoryId)
-                .getResultList();
+    @Override
+    public List<EventSummary> findEventSummariesByCriteria(LocalDateTime fromDate, LocalDateTime toDate, Long categoryId, EventCursor after, int limit) {
+        return SlowQueryLog.list("EventRepository.findEventSummariesByCriteria", EventQuery.select(EventQuery.Select.SUMMARIES)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .category(categoryId)
+                .keyset(after)
+                .create(EntityManagerUtil.getEntityManager(), EventSummary.class)
+                .setMaxResults(limit));
+    }
+
+    @Override
+    public List<EventSummary> findEventSummariesByIds(List<Long> ids, LocalDateTime fromDate, LocalDateTime toDate, Long categoryId) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return SlowQueryLog.list("EventRepository.findEventSummariesByIds", EventQuery.select(EventQuery.Select.SUMMARIES)
+                .ids(ids)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .category(categoryId)
+                .create(EntityManagerUtil.getEntityManager(), EventSummary.class));
+    }
+
+    @Override
+    public Stream<EventSummary> streamEventSummaries() {
+        return SlowQueryLog.stream("EventRepository.streamEventSummaries", EventQuery.select(EventQuery.Select.SUMMARIES)
+                .create(EntityManagerUtil.getEntityManager(), EventSummary.class)
+                .setHint("org.hibernate.fetchSize", 500));
+    }
+
+    @Override
+    public Stream<EventSummary> streamEventSummaries(LocalDateTime fromDate) {
+        return SlowQueryLog.stream("EventRepository.streamEventSummaries", EventQuery.select(EventQuery.Select.SUMMARIES)
+                .fromDate(fromDate)
+                .keyset(null)
+                .create(EntityManagerUtil.getEntityManager(), EventSummary.class)
+                .setHint("org.hibernate.fetchSize", 500));
     }
-}
\ No newline at end of file
+}
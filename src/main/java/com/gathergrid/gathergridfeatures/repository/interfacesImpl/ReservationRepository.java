@@ -1,4 +1,24 @@
 package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
 
+import com.gathergrid.gathergridfeatures.domain.dto.AttendeeRow;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
+
+import java.util.stream.Stream;
+
 public class ReservationRepository extends crudRepository{
+    /**
+     * Reservations of the event in booking order, read through a forward-only cursor {@code
+     * gathergrid.export.fetchSize} rows at a time (see useCursorFetch in persistence.xml), so the
+     * list is never held in memory. The stream must be closed.
+     */
+    public Stream<AttendeeRow> streamAttendees(long eventId) {
+        return SlowQueryLog.stream(operation("streamAttendees"), EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT new com.gathergrid.gathergridfeatures.domain.dto.AttendeeRow("
+                        + "r.id, r.reservationDate, u.firstName, u.lastName, u.email, t.type, t.price) "
+                        + "FROM Reservation r JOIN r.ticket t JOIN r.user u "
+                        + "WHERE t.event.id = :eventId ORDER BY r.id", AttendeeRow.class)
+                .setParameter("eventId", eventId)
+                .setHint("org.hibernate.fetchSize", Integer.getInteger("gathergrid.export.fetchSize", 1000)));
+    }
 }
@@ -1,23 +1,35 @@
 package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
 
-import com.gathergrid.gathergridfeatures.domain.Ticket;
 import com.gathergrid.gathergridfeatures.domain.User;
 import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
+import org.hibernate.Session;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class UserRepository<T> extends crudRepository<T> {
+    /**
+     * Resolved through the natural-id and entity caches (bounded, with a TTL, see ehcache.xml);
+     * Hibernate updates both on every user write, so only a miss reaches the database.
+     */
     public Optional<User> findByEmail(User user) {
-        EntityManager entityManager = EntityManagerUtil.getEntityManager();
-        try {
-            User user1 = entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
-                    .setParameter("email", user.getEmail())
-                    .getSingleResult();
-            return Optional.ofNullable(user1);
-        }catch (NoResultException e) {
+        if (user.getEmail() == null) {
             return Optional.empty();
         }
+        return SlowQueryLog.timed(operation("findByEmail"), () -> EntityManagerUtil.getEntityManager().unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(user.getEmail()));
+    }
+
+    public long countUsers() {
+        return SlowQueryLog.single(operation("countUsers"), EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT COUNT(u) FROM User u", Long.class));
+    }
+
+    public Stream<String> streamEmails() {
+        return SlowQueryLog.stream(operation("streamEmails"), EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT u.email FROM User u", String.class)
+                .setHint("org.hibernate.fetchSize", 1000));
     }
 }
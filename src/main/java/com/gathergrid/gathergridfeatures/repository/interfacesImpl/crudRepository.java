@@ -1,60 +1,50 @@
 package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
 
 import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
+import com.gathergrid.gathergridfeatures.utils.SlowQueryLog;
 
 import java.util.List;
 
 
 public class crudRepository<T> {
 
-    private final EntityManager entityManager;
-
-    public crudRepository() {
-         entityManager = EntityManagerUtil.getEntityManager();
+    public void save(T objet){
+        SlowQueryLog.timed(operation("save"), () -> EntityManagerUtil.runInTransaction(em -> em.persist(objet)));
     }
 
-
-
-    public void save(T objet){
-        entityManager.getTransaction().begin();
-        entityManager.persist(objet);
-        entityManager.getTransaction().commit();
+    public void saveAll(List<T> objets){
+        SlowQueryLog.timed(operation("saveAll"), () -> EntityManagerUtil.persistInBatches(objets));
     }
 
     public T findById(Class<T> entityClass, Long id) {
-        return entityManager.find(entityClass, id);
+        return SlowQueryLog.timed(operation("findById"), () -> EntityManagerUtil.getEntityManager().find(entityClass, id));
     }
 
     public List<T> getAll(Class<T> entityClass) {
-        List<T> entities = entityManager.createQuery("SELECT e FROM " + entityClass.getSimpleName() + " e", entityClass).getResultList();
-        entityManager.close();
-        return entities;
+        return SlowQueryLog.list(operation("getAll"), EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT e FROM " + entityClass.getSimpleName() + " e", entityClass));
     }
 
     public void update(Class<T> entityClass, Long entityId, T updatedEntity) {
-        entityManager.getTransaction().begin();
-
-        T entity = entityManager.find(entityClass, entityId);
-        if (entity != null) {
-            entityManager.merge(entity);
-        }
-
-        entityManager.getTransaction().commit();
+        SlowQueryLog.timed(operation("update"), () -> EntityManagerUtil.runInTransaction(em -> {
+            T entity = em.find(entityClass, entityId);
+            if (entity != null) {
+                em.merge(updatedEntity);
+            }
+        }));
     }
 
     public void delete(Class<T> entityClass, Long entityId) {
-        entityManager.getTransaction().begin();
-
-        T entity = entityManager.find(entityClass, entityId);
-        if (entity != null) {
-            entityManager.remove(entity);
-        }
-
-        entityManager.getTransaction().commit();
+        SlowQueryLog.timed(operation("delete"), () -> EntityManagerUtil.runInTransaction(em -> {
+            T entity = em.find(entityClass, entityId);
+            if (entity != null) {
+                em.remove(entity);
+            }
+        }));
     }
 
-
-
+    // named after the concrete repository, e.g. UserRepository.findById
+    String operation(String method) {
+        return getClass().getSimpleName() + "." + method;
+    }
 }
-
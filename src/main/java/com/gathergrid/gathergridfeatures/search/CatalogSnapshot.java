@@ -0,0 +1,273 @@
+package com.gathergrid.gathergridfeatures.search;
+
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.utils.EventCursor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable column-per-field copy of every event dated at or after {@code horizon}, rows sorted
+ * by (date, id) like the keyset listing. Date ranges are found by binary search and category
+ * filters are a scan over a {@code long[]}; {@link EventSummary} objects are only created for
+ * the rows returned. Changes never touch an existing snapshot, they produce a new one.
+ */
+public final class CatalogSnapshot {
+    private static final long NO_CATEGORY = 0;
+    private static final Comparator<EventSummary> ROW_ORDER =
+            Comparator.comparingLong((EventSummary event) -> micros(event.getDate())).thenComparingLong(EventSummary::getId);
+
+    private final long horizon;
+    // dates as microseconds since the epoch, read as UTC
+    private final long[] dates;
+    private final long[] ids;
+    private final long[] categoryIds;
+    private final String[] names;
+    private final String[] addresses;
+    private final String[] descriptions;
+    private final String[] categoryNames;
+    // ids in ascending order and the row each one is stored at, for lookups by id
+    private final long[] sortedIds;
+    private final int[] rowOfSortedId;
+
+    private CatalogSnapshot(long horizon, int size) {
+        this.horizon = horizon;
+        dates = new long[size];
+        ids = new long[size];
+        categoryIds = new long[size];
+        names = new String[size];
+        addresses = new String[size];
+        descriptions = new String[size];
+        categoryNames = new String[size];
+        sortedIds = new long[size];
+        rowOfSortedId = new int[size];
+    }
+
+    public static CatalogSnapshot of(LocalDateTime horizon, List<EventSummary> events) {
+        long from = micros(horizon);
+        List<EventSummary> upcoming = new ArrayList<>();
+        for (EventSummary event : events) {
+            if (event.getDate() != null && micros(event.getDate()) >= from) {
+                upcoming.add(event);
+            }
+        }
+        upcoming.sort(ROW_ORDER);
+        CatalogSnapshot snapshot = new CatalogSnapshot(from, upcoming.size());
+        for (int row = 0; row < upcoming.size(); row++) {
+            snapshot.set(row, upcoming.get(row));
+        }
+        int[] byId = IntStream.range(0, upcoming.size()).boxed()
+                .sorted(Comparator.comparingLong(row -> snapshot.ids[row]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int i = 0; i < byId.length; i++) {
+            snapshot.sortedIds[i] = snapshot.ids[byId[i]];
+            snapshot.rowOfSortedId[i] = byId[i];
+        }
+        return snapshot;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public LocalDateTime getHorizon() {
+        return dateOf(horizon);
+    }
+
+    /** True when every event a query starting at {@code from} could return is in the snapshot. */
+    public boolean covers(LocalDateTime from) {
+        return from != null && micros(from) >= horizon;
+    }
+
+    /** Same rows and order as {@code findEventSummariesByCriteria}, for a {@code from} this snapshot covers. */
+    public List<EventSummary> find(LocalDateTime from, LocalDateTime to, Long categoryId, EventCursor after, int limit) {
+        int start = firstAfter(micros(from), Long.MIN_VALUE);
+        if (after != null) {
+            start = Math.max(start, firstAfter(micros(after.getDate()), after.getId()));
+        }
+        int end = to == null ? size() : firstAfter(micros(to), Long.MAX_VALUE);
+        List<EventSummary> rows = new ArrayList<>(Math.min(limit, Math.max(0, end - start)));
+        if (categoryId == null) {
+            for (int row = start; row < end && rows.size() < limit; row++) {
+                rows.add(get(row));
+            }
+            return rows;
+        }
+        long category = categoryId;
+        for (int row = start; row < end && rows.size() < limit; row++) {
+            if (categoryIds[row] == category) {
+                rows.add(get(row));
+            }
+        }
+        return rows;
+    }
+
+    /** The events among {@code eventIds} that pass the filters, in no particular order. */
+    public List<EventSummary> findByIds(List<Long> eventIds, LocalDateTime from, LocalDateTime to, Long categoryId) {
+        long start = micros(from);
+        long end = to == null ? Long.MAX_VALUE : micros(to);
+        List<EventSummary> rows = new ArrayList<>();
+        for (Long id : eventIds) {
+            int row = rowOf(id);
+            if (row >= 0 && dates[row] >= start && dates[row] <= end
+                    && (categoryId == null || categoryIds[row] == categoryId)) {
+                rows.add(get(row));
+            }
+        }
+        return rows;
+    }
+
+    /** A copy with the event added or replaced, or removed if it is now dated before the horizon. */
+    public CatalogSnapshot with(EventSummary event) {
+        return withAll(List.of(event));
+    }
+
+    /**
+     * A copy with every event applied as {@link #with} would, the last one winning for an id
+     * given twice, built in a single pass over the rows instead of one copy per event.
+     */
+    public CatalogSnapshot withAll(List<EventSummary> events) {
+        Map<Long, EventSummary> latest = new LinkedHashMap<>();
+        for (EventSummary event : events) {
+            latest.put(event.getId(), event);
+        }
+        boolean[] removed = new boolean[size()];
+        int removedCount = 0;
+        List<EventSummary> inserted = new ArrayList<>();
+        for (EventSummary event : latest.values()) {
+            int existing = rowOf(event.getId());
+            if (existing >= 0) {
+                removed[existing] = true;
+                removedCount++;
+            }
+            if (event.getDate() != null && micros(event.getDate()) >= horizon) {
+                inserted.add(event);
+            }
+        }
+        return removedCount == 0 && inserted.isEmpty() ? this : merge(removed, removedCount, inserted);
+    }
+
+    public CatalogSnapshot without(long id) {
+        int existing = rowOf(id);
+        if (existing < 0) {
+            return this;
+        }
+        boolean[] removed = new boolean[size()];
+        removed[existing] = true;
+        return merge(removed, 1, List.of());
+    }
+
+    // copies every row not removed and slots the inserted events in, keeping both orders
+    private CatalogSnapshot merge(boolean[] removed, int removedCount, List<EventSummary> inserted) {
+        List<EventSummary> byDate = new ArrayList<>(inserted);
+        byDate.sort(ROW_ORDER);
+        CatalogSnapshot next = new CatalogSnapshot(horizon, size() - removedCount + byDate.size());
+        int[] newRowOf = new int[size()];
+        Map<Long, Integer> insertedRows = new HashMap<>();
+        int src = 0;
+        int ins = 0;
+        int dst = 0;
+        while (src < size() || ins < byDate.size()) {
+            if (src < size() && removed[src]) {
+                newRowOf[src++] = -1;
+            } else if (ins < byDate.size() && (src == size() || precedes(byDate.get(ins), src))) {
+                insertedRows.put(byDate.get(ins).getId(), dst);
+                next.set(dst++, byDate.get(ins++));
+            } else {
+                next.copyRow(this, src, dst);
+                newRowOf[src++] = dst++;
+            }
+        }
+
+        long[] insertedIds = byDate.stream().mapToLong(EventSummary::getId).sorted().toArray();
+        int k = 0;
+        int j = 0;
+        for (int i = 0; i < sortedIds.length; i++) {
+            int row = newRowOf[rowOfSortedId[i]];
+            if (row < 0) {
+                continue;
+            }
+            for (; j < insertedIds.length && insertedIds[j] < sortedIds[i]; j++, k++) {
+                next.sortedIds[k] = insertedIds[j];
+                next.rowOfSortedId[k] = insertedRows.get(insertedIds[j]);
+            }
+            next.sortedIds[k] = sortedIds[i];
+            next.rowOfSortedId[k++] = row;
+        }
+        for (; j < insertedIds.length; j++, k++) {
+            next.sortedIds[k] = insertedIds[j];
+            next.rowOfSortedId[k] = insertedRows.get(insertedIds[j]);
+        }
+        return next;
+    }
+
+    // true when the event sorts before the given row in (date, id) order
+    private boolean precedes(EventSummary event, int row) {
+        long date = micros(event.getDate());
+        return date < dates[row] || (date == dates[row] && event.getId() < ids[row]);
+    }
+
+    // first row whose (date, id) is greater than the given key
+    private int firstAfter(long date, long id) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dates[mid] < date || (dates[mid] == date && ids[mid] <= id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int rowOf(long id) {
+        int i = Arrays.binarySearch(sortedIds, id);
+        return i < 0 ? -1 : rowOfSortedId[i];
+    }
+
+    private EventSummary get(int row) {
+        return new EventSummary(ids[row], names[row], dateOf(dates[row]), addresses[row], descriptions[row],
+                categoryIds[row] == NO_CATEGORY ? null : categoryIds[row], categoryNames[row]);
+    }
+
+    private void set(int row, EventSummary event) {
+        dates[row] = micros(event.getDate());
+        ids[row] = event.getId();
+        categoryIds[row] = event.getCategoryId() == null ? NO_CATEGORY : event.getCategoryId();
+        names[row] = event.getName();
+        // few distinct values, so every row shares the same instance
+        addresses[row] = event.getAddress() == null ? null : event.getAddress().intern();
+        descriptions[row] = event.getDescription();
+        categoryNames[row] = event.getCategoryName() == null ? null : event.getCategoryName().intern();
+    }
+
+    private void copyRow(CatalogSnapshot from, int src, int dst) {
+        dates[dst] = from.dates[src];
+        ids[dst] = from.ids[src];
+        categoryIds[dst] = from.categoryIds[src];
+        names[dst] = from.names[src];
+        addresses[dst] = from.addresses[src];
+        descriptions[dst] = from.descriptions[src];
+        categoryNames[dst] = from.categoryNames[src];
+    }
+
+    private static long micros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + date.getNano() / 1_000;
+    }
+
+    private static LocalDateTime dateOf(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
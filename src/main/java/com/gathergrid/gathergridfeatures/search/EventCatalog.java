@@ -0,0 +1,60 @@
+package com.gathergrid.gathergridfeatures.search;
+
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds the current {@link CatalogSnapshot} of upcoming events. Readers take the snapshot
+ * without locking; writers are serialised and publish a new copy, so a reader always sees one
+ * consistent version. Until {@link #load} has run every query falls back to the database.
+ */
+public class EventCatalog {
+    private static final EventCatalog INSTANCE = new EventCatalog();
+
+    private volatile CatalogSnapshot snapshot;
+
+    EventCatalog() {
+    }
+
+    public static EventCatalog getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void load(LocalDateTime horizon, Stream<EventSummary> events) {
+        snapshot = CatalogSnapshot.of(horizon, events.collect(Collectors.toList()));
+    }
+
+    /** The snapshot if it can answer a query starting at {@code from}, otherwise null. */
+    public CatalogSnapshot covering(LocalDateTime from) {
+        CatalogSnapshot current = snapshot;
+        return current != null && current.covers(from) ? current : null;
+    }
+
+    public synchronized void upsert(EventSummary event) {
+        if (snapshot != null) {
+            snapshot = snapshot.with(event);
+        }
+    }
+
+    /** Applies a whole batch with one copy, where an upsert per event would copy the snapshot each time. */
+    public synchronized void upsertAll(List<EventSummary> events) {
+        if (snapshot != null) {
+            snapshot = snapshot.withAll(events);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        if (snapshot != null) {
+            snapshot = snapshot.without(id);
+        }
+    }
+
+    public int size() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : current.size();
+    }
+}
@@ -0,0 +1,187 @@
+package com.gathergrid.gathergridfeatures.search;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over event name, address and description. Terms are kept sorted so
+ * every query word also matches the terms it is a prefix of; events must match all query words
+ * and are ranked by field-weighted TF-IDF, exact words scoring above prefix matches.
+ * Writes go through {@link com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl}
+ * and the whole index is rebuilt from the database at startup.
+ */
+public class EventSearchIndex {
+    public static final int MAX_RESULTS = 1000;
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float ADDRESS_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PREFIX_PENALTY = 0.5f;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final EventSearchIndex INSTANCE = new EventSearchIndex();
+
+    // term -> (event id -> weighted term frequency)
+    private final ConcurrentSkipListMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    // event id -> its terms, to remove stale postings when the event changes, and its filter fields
+    private final ConcurrentHashMap<Long, Document> documents = new ConcurrentHashMap<>();
+
+    private static final class Document {
+        final Set<String> terms;
+        final LocalDateTime date;
+        final Long categoryId;
+
+        Document(Set<String> terms, LocalDateTime date, Long categoryId) {
+            this.terms = terms;
+            this.date = date;
+            this.categoryId = categoryId;
+        }
+
+        boolean matches(LocalDateTime from, LocalDateTime to, Long categoryId) {
+            if ((from != null || to != null) && date == null) {
+                return false;
+            }
+            return (from == null || !date.isBefore(from))
+                    && (to == null || !date.isAfter(to))
+                    && (categoryId == null || categoryId.equals(this.categoryId));
+        }
+    }
+
+    EventSearchIndex() {
+    }
+
+    public static EventSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    public void index(Event event) {
+        index(event.getId(), event.getName(), event.getAddress(), event.getDescription(), event.getDate(),
+                event.getCategory() == null ? null : event.getCategory().getId());
+    }
+
+    public void index(EventSummary event) {
+        index(event.getId(), event.getName(), event.getAddress(), event.getDescription(), event.getDate(),
+                event.getCategoryId());
+    }
+
+    public synchronized void index(long id, String name, String address, String description, LocalDateTime date, Long categoryId) {
+        remove(id);
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, name, NAME_WEIGHT);
+        addField(weights, address, ADDRESS_WEIGHT);
+        addField(weights, description, DESCRIPTION_WEIGHT);
+        weights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, weight));
+        documents.put(id, new Document(weights.keySet(), date, categoryId));
+    }
+
+    public synchronized void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            postings.computeIfPresent(term, (t, events) -> {
+                events.remove(id);
+                return events.isEmpty() ? null : events;
+            });
+        }
+    }
+
+    public synchronized void rebuild(Stream<EventSummary> events) {
+        postings.clear();
+        documents.clear();
+        events.forEach(this::index);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /** True when the text contains at least one word long enough to be searched. */
+    public static boolean isSearchable(String text) {
+        return !tokenize(text).isEmpty();
+    }
+
+    /** Ids of the events matching every word of the query, best match first, at most {@link #MAX_RESULTS}. */
+    public List<Long> search(String query) {
+        return search(query, null, null, null);
+    }
+
+    /**
+     * As {@link #search(String)}, keeping only events dated within {@code from} and {@code to}
+     * and of the category, each bound ignored when null. The filters apply before the cap, so
+     * past or other-category matches never crowd the wanted ones out of the results.
+     */
+    public List<Long> search(String query, LocalDateTime from, LocalDateTime to, Long categoryId) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        int documentCount = Math.max(1, documents.size());
+        Map<Long, Float> scores = null;
+        for (String word : new LinkedHashSet<>(words)) {
+            Map<Long, Float> wordScores = scoreWord(word, documentCount);
+            if (scores == null) {
+                scores = wordScores;
+            } else {
+                scores.keySet().retainAll(wordScores.keySet());
+                scores.replaceAll((id, score) -> score + wordScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        scores.keySet().removeIf(id -> {
+            Document document = documents.get(id);
+            return document == null || !document.matches(from, to, categoryId);
+        });
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(Math.min(ranked.size(), MAX_RESULTS));
+        for (int i = 0; i < ranked.size() && i < MAX_RESULTS; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    // best score of every event for one query word, over all the terms the word is a prefix of
+    private Map<Long, Float> scoreWord(String word, int documentCount) {
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Float>> posting : postings.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+            Map<Long, Float> events = posting.getValue();
+            float idf = (float) Math.log(1 + (double) documentCount / events.size());
+            float boost = posting.getKey().equals(word) ? 1f : PREFIX_PENALTY;
+            events.forEach((id, weight) -> scores.merge(id, weight * idf * boost, Math::max));
+        }
+        return scores;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float fieldWeight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, fieldWeight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
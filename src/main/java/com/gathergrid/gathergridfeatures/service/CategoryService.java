@@ -3,8 +3,6 @@ package com.gathergrid.gathergridfeatures.service;
 import com.gathergrid.gathergridfeatures.domain.Category;
 import com.gathergrid.gathergridfeatures.repository.interfaces.CategoryRepository;
 import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CategoryRepositoryImpl;
-import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
 
 import java.util.List;
 
@@ -16,8 +14,7 @@ public class CategoryService {
     }
 
     public CategoryService() {
-        EntityManager em = EntityManagerUtil.getEntityManager();
-        categoryRepository = new CategoryRepositoryImpl(em);
+        categoryRepository = new CategoryRepositoryImpl();
     }
 
     public List<Category> getAllCategories() {
@@ -0,0 +1,177 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Writes comments in group commits from a single background thread. Request threads only
+ * validate and enqueue; the writer waits at most {@code flushMillis} after the first comment of
+ * a batch for up to {@code batchSize} more and saves them in one transaction. The future returned
+ * by {@link #submit(Comment)} completes once the comment is committed. When the bounded queue is
+ * full new comments are refused straight away instead of piling up.
+ */
+public class CommentIngestion {
+    private static final Logger LOGGER = Logger.getLogger(CommentIngestion.class.getName());
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final CommentIngestion INSTANCE = new CommentIngestion(new CommentRepositryImpl(),
+            Integer.getInteger("gathergrid.comments.queueCapacity", 10_000),
+            Integer.getInteger("gathergrid.comments.batchSize", 100),
+            Long.getLong("gathergrid.comments.flushMillis", 20));
+
+    private final CommentRepositryImpl commentRepositry;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long flushMillis;
+    // submit holds the read lock while enqueueing, so nothing is added once stop has begun
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writer;
+
+    private static class Pending {
+        final Comment comment;
+        final CompletableFuture<Comment> committed = new CompletableFuture<>();
+
+        Pending(Comment comment) {
+            this.comment = comment;
+        }
+    }
+
+    CommentIngestion(CommentRepositryImpl commentRepositry, int capacity, int batchSize, long flushMillis) {
+        this.commentRepositry = commentRepositry;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+    }
+
+    public static CommentIngestion getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queues an already validated comment. While the writer is not running the comment is saved
+     * on the calling thread instead.
+     *
+     * @throws IllegalStateException when the queue is full
+     */
+    public CompletableFuture<Comment> submit(Comment comment) {
+        runningLock.readLock().lock();
+        try {
+            if (running) {
+                Pending pending = new Pending(comment);
+                if (!queue.offer(pending)) {
+                    throw new IllegalStateException("Too many comments right now, please try again in a moment");
+                }
+                return pending.committed;
+            }
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        return CompletableFuture.completedFuture(commentRepositry.save(comment));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::run, "comment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Stops accepting comments and returns once everything already queued is written. */
+    public synchronized void stop() {
+        if (writer == null) {
+            return;
+        }
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            commentRepositry.saveAll(batch.stream().map(pending -> pending.comment).collect(Collectors.toList()));
+            batch.forEach(pending -> pending.committed.complete(pending.comment));
+            return;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Saving a batch of " + batch.size() + " comments failed, saving them one by one", e);
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+        // one bad comment must not fail the others
+        for (Pending pending : batch) {
+            try {
+                // ids handed out by the rolled back batch would make persist treat it as detached
+                pending.comment.setId(0);
+                pending.committed.complete(commentRepositry.save(pending.comment));
+            } catch (RuntimeException e) {
+                pending.committed.completeExceptionally(e);
+            } finally {
+                EntityManagerUtil.closeEntityManager();
+            }
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.gathergrid.gathergridfeatures.service;
 
 import com.gathergrid.gathergridfeatures.domain.Comment;
 import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.EventRating;
 import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.repository.EventRatingRepository;
 import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
+import com.gathergrid.gathergridfeatures.utils.Page;
 
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 
 public class CommentService {
+    public static final int PAGE_SIZE = 20;
 
     private final CommentRepositryImpl commentRepositry;
     private final EventService eventService;
+    private final EventRatingRepository ratingRepository = new EventRatingRepository();
 
     public CommentService(CommentRepositryImpl commentRepositry, EventService eventService) {
         this.commentRepositry = commentRepositry;
@@ -22,6 +29,15 @@ public class CommentService {
         return commentRepositry.save(comment);
     }
 
+    /**
+     * Validates on the calling thread, then hands the comment to the batched writer. The future
+     * completes with the saved comment once it is committed.
+     */
+    public CompletableFuture<Comment> submitComment(Comment comment){
+        validate(comment);
+        return CommentIngestion.getInstance().submit(comment);
+    }
+
     public List<Comment> ListComment(Long event_id){
         Event event = eventService.findById(event_id);
         if (event != null)
@@ -30,6 +46,33 @@ public class CommentService {
             throw new NoSuchElementException("Event not found");
     }
 
+    public Page<Comment> ListComment(Long event_id, String cursor){
+        Event event = eventService.findById(event_id);
+        if (event == null)
+            throw new NoSuchElementException("Event not found");
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(cursor);
+            } catch (NumberFormatException ignored) {
+                // malformed cursor: start from the newest comment
+            }
+        }
+        List<Comment> rows = commentRepositry.show(event_id, afterId, PAGE_SIZE + 1);
+        return Page.of(rows, PAGE_SIZE, comment -> String.valueOf(comment.getId()));
+    }
+
+    /** The event's rating totals, or an empty rating when nobody has commented yet. */
+    public EventRating getRating(long event_id) {
+        EventRating rating = ratingRepository.find(event_id);
+        return rating != null ? rating : new EventRating(event_id);
+    }
+
+    /** Ratings of a page of events by event id; events without comments are left out. */
+    public Map<Long, EventRating> getRatings(List<Long> event_ids) {
+        return ratingRepository.findAll(event_ids);
+    }
+
     public Comment updateComment(Comment comment) throws Exception {
         validate(comment);
         Comment exestingComment = commentRepositry.findById(comment.getId());
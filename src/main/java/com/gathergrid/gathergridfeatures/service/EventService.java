@@ -4,17 +4,28 @@ import com.gathergrid.gathergridfeatures.domain.Category;
 import com.gathergrid.gathergridfeatures.domain.Event;
 import com.gathergrid.gathergridfeatures.domain.Ticket;
 import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
 import com.gathergrid.gathergridfeatures.repository.interfaces.EventRepository;
 import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.search.CatalogSnapshot;
+import com.gathergrid.gathergridfeatures.search.EventCatalog;
+import com.gathergrid.gathergridfeatures.search.EventSearchIndex;
 import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
-import jakarta.persistence.EntityManager;
+import com.gathergrid.gathergridfeatures.utils.EventCursor;
+import com.gathergrid.gathergridfeatures.utils.Page;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class EventService {
+    public static final int PAGE_SIZE = 20;
+    // search hits are checked against the other filters this many ids at a time
+    private static final int SEARCH_CHUNK = 200;
+
     private final EventRepository eventRepository;
 
     public EventService(EventRepository eventRepository) {
@@ -22,8 +33,7 @@ public class EventService {
     }
 
     public EventService() {
-        EntityManager em = EntityManagerUtil.getEntityManager();
-        eventRepository = new EventRepositoryImpl(em);
+        eventRepository = new EventRepositoryImpl();
     }
 
     public Event createEvent(Event event, long organizerId, List<Ticket> tickets, long categoryId) {
@@ -33,28 +43,32 @@ public class EventService {
         CategoryService categoryService = new CategoryService();
         UserService userService = new UserService();
 
-        Category category = categoryService.getById(categoryId);
-        User user = userService.getById(organizerId);
-        event.setOrganizer(user);
-        event.setCategory(category);
-        return eventRepository.save(event);
+        return EntityManagerUtil.executeInTransaction(em -> {
+            Category category = categoryService.getById(categoryId);
+            User user = userService.getById(organizerId);
+            event.setOrganizer(user);
+            event.setCategory(category);
+            return eventRepository.save(event);
+        });
     }
 
     public Event updateEvent(long event_id, Event event, long organizerId, List<Ticket> tickets, long categoryId) {
-        Event event1 = eventRepository.find(event_id);
         for (Ticket ticket : tickets)
             event.addTicket(ticket);
         CategoryService categoryService = new CategoryService();
         UserService userService = new UserService();
-        Category category = categoryService.getById(categoryId);
-        User user = userService.getById(organizerId);
-        event.setOrganizer(user);
-        event.setCategory(category);
-        event1.setDate(event.getDate());
-        event1.setName(event.getName());
-        event1.setDescription(event.getDescription());
-        event1.setAddress(event.getDescription());
-        return eventRepository.update(event1);
+        return EntityManagerUtil.executeInTransaction(em -> {
+            Event event1 = eventRepository.find(event_id);
+            Category category = categoryService.getById(categoryId);
+            User user = userService.getById(organizerId);
+            event.setOrganizer(user);
+            event.setCategory(category);
+            event1.setDate(event.getDate());
+            event1.setName(event.getName());
+            event1.setDescription(event.getDescription());
+            event1.setAddress(event.getDescription());
+            return eventRepository.update(event1);
+        });
     }
 
     public Event findById(long id) {
@@ -73,21 +87,77 @@ public class EventService {
         return eventRepository.fetchCreatedEventOfUser(user_id);
     }
 
-    public List<Event> filterEvents(String fromDate, String toDate, String name, String categoryId) {
+    public Page<Event> fetchAllEventOfUser(Long user_id, String cursor) {
+        List<Event> rows = eventRepository.fetchCreatedEventOfUser(user_id, EventCursor.parse(cursor), PAGE_SIZE + 1);
+        return Page.of(rows, PAGE_SIZE, event -> EventCursor.of(event).toString());
+    }
+
+    /**
+     * Lists upcoming events (from today when no start date is given). Served from the in-memory
+     * catalog when it covers the requested start date, from the database otherwise.
+     */
+    public Page<EventSummary> filterEvents(String fromDate, String toDate, String name, String categoryId, String cursor) {
         LocalDateTime localDateFrom = !fromDate.isBlank() ?
                 LocalDateTime.parse(fromDate + "T00:00:00") :
-                null;
+                LocalDateTime.now();
         LocalDateTime localDateTo = !toDate.isBlank() ?
                 LocalDateTime.parse(toDate + "T00:00:00") :
                 null;
-        Long catId = null;
+        Long catId;
         try {
             catId = !categoryId.isBlank() ?
                     Long.parseLong(categoryId) :
                     null;
         } catch (NumberFormatException e) {
-            return new ArrayList<Event>(); // TODO: change this
+            return Page.empty();
+        }
+        CatalogSnapshot catalog = EventCatalog.getInstance().covering(localDateFrom);
+        if (EventSearchIndex.isSearchable(name)) {
+            return searchEvents(name, localDateFrom, localDateTo, catId, cursor, catalog);
+        }
+        List<EventSummary> rows = catalog != null ?
+                catalog.find(localDateFrom, localDateTo, catId, EventCursor.parse(cursor), PAGE_SIZE + 1) :
+                eventRepository.findEventSummariesByCriteria(localDateFrom, localDateTo, catId,
+                        EventCursor.parse(cursor), PAGE_SIZE + 1);
+        return Page.of(rows, PAGE_SIZE, event -> new EventCursor(event.getDate(), event.getId()).toString());
+    }
+
+    /**
+     * Ranks the events passing the date and category filters with the search index, then reads
+     * the hits in rank order, checking the filters again against the catalog or the database.
+     * The cursor is the position in the ranking to resume from.
+     */
+    private Page<EventSummary> searchEvents(String text, LocalDateTime fromDate, LocalDateTime toDate, Long categoryId, String cursor,
+                                            CatalogSnapshot catalog) {
+        List<Long> ranked = EventSearchIndex.getInstance().search(text, fromDate, toDate, categoryId);
+        int position;
+        try {
+            position = cursor == null || cursor.isBlank() ? 0 : Math.max(0, Integer.parseInt(cursor));
+        } catch (NumberFormatException e) {
+            position = 0;
+        }
+        List<EventSummary> items = new ArrayList<>();
+        String nextCursor = null;
+        while (nextCursor == null && position < ranked.size()) {
+            List<Long> chunk = ranked.subList(position, Math.min(position + SEARCH_CHUNK, ranked.size()));
+            List<EventSummary> hits = catalog != null ?
+                    catalog.findByIds(chunk, fromDate, toDate, categoryId) :
+                    eventRepository.findEventSummariesByIds(chunk, fromDate, toDate, categoryId);
+            Map<Long, EventSummary> found = hits.stream()
+                    .collect(Collectors.toMap(EventSummary::getId, Function.identity()));
+            for (Long id : chunk) {
+                EventSummary event = found.get(id);
+                if (event == null) {
+                    position++;
+                } else if (items.size() == PAGE_SIZE) {
+                    nextCursor = String.valueOf(position);
+                    break;
+                } else {
+                    items.add(event);
+                    position++;
+                }
+            }
         }
-        return eventRepository.findEventsByCriteria(localDateFrom, localDateTo, name, catId);
+        return new Page<>(items, nextCursor);
     }
 }
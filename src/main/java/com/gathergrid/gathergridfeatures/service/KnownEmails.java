@@ -0,0 +1,69 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.utils.BloomFilter;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every registered email, so that most "is this email free?" checks at
+ * registration are answered without a query. It only rules emails out: a "might exist" still
+ * goes to the database, and the unique constraint on users.email settles races, including with
+ * users registered on other nodes since this one started. Sign-ins do not use it, since a wrong
+ * "unknown user" would lock such users out. Until it is
+ * loaded, or once more emails were added than it was sized for, every email might exist.
+ */
+public class KnownEmails {
+    private static final Logger LOGGER = Logger.getLogger(KnownEmails.class.getName());
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 10_000;
+    private static final KnownEmails INSTANCE = new KnownEmails();
+
+    private volatile BloomFilter filter;
+    private volatile long capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    KnownEmails() {
+    }
+
+    public static KnownEmails getInstance() {
+        return INSTANCE;
+    }
+
+    /** Sized for twice the current users, to leave room for registrations until the next restart. */
+    public synchronized void load(long userCount, Stream<String> emails) {
+        long sized = Math.max(MIN_CAPACITY, userCount * 2);
+        BloomFilter loaded = new BloomFilter((int) Math.min(Integer.MAX_VALUE, sized), FALSE_POSITIVE_RATE);
+        long[] count = {0};
+        emails.forEach(email -> {
+            loaded.put(normalize(email));
+            count[0]++;
+        });
+        size.set(count[0]);
+        capacity = sized;
+        filter = loaded;
+    }
+
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        return current == null || email == null || size.get() > capacity || current.mightContain(normalize(email));
+    }
+
+    public void add(String email) {
+        BloomFilter current = filter;
+        if (current == null || email == null) {
+            return;
+        }
+        current.put(normalize(email));
+        if (size.incrementAndGet() == capacity + 1) {
+            LOGGER.warning("More users than the email filter was sized for, checking every email against the database until restart");
+        }
+    }
+
+    // MySQL compares emails case-insensitively, so must the filter
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,149 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs every BCrypt hash and check on its own small pool, so a burst of sign-ins can use at
+ * most {@code threads} cores and never ties up the container's request threads on CPU work.
+ * When the pool and its short queue are full the call fails at once with
+ * {@link IllegalStateException} instead of waiting.
+ * <p>
+ * The cost factor is {@code gathergrid.hash.cost} when set; otherwise {@link #calibrate()} picks
+ * the highest cost whose hash takes at most {@code gathergrid.hash.targetMillis} on this machine,
+ * never below BCrypt's default of 10.
+ */
+public class PasswordHasher {
+    private static final Logger LOGGER = Logger.getLogger(PasswordHasher.class.getName());
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final PasswordHasher INSTANCE = new PasswordHasher(
+            Integer.getInteger("gathergrid.hash.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            Integer.getInteger("gathergrid.hash.queueCapacity", 32),
+            Integer.getInteger("gathergrid.hash.cost", 0),
+            Long.getLong("gathergrid.hash.timeoutMillis", 5000));
+
+    private final ThreadPoolExecutor executor;
+    private final boolean fixedCost;
+    private final long timeoutMillis;
+    private volatile int cost;
+
+    PasswordHasher(int threads, int queueCapacity, int cost, long timeoutMillis) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.fixedCost = cost > 0;
+        this.cost = fixedCost ? cost : MIN_COST;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public static PasswordHasher getInstance() {
+        return INSTANCE;
+    }
+
+    public String hash(String plainPassword) {
+        int currentCost = cost;
+        return run(() -> BCrypt.hashpw(plainPassword, BCrypt.gensalt(currentCost)));
+    }
+
+    public boolean verify(String plainPassword, String hashed) {
+        return run(() -> BCrypt.checkpw(plainPassword, hashed));
+    }
+
+    /** True when the hash was made with a lower cost than the current one. */
+    public boolean needsRehash(String hashed) {
+        return costOf(hashed) < cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /** Measures this machine and sets the cost, unless one was configured. Returns the cost in use. */
+    public int calibrate() {
+        if (fixedCost) {
+            return cost;
+        }
+        long targetMillis = Long.getLong("gathergrid.hash.targetMillis", 250);
+        String salt = BCrypt.gensalt(MIN_COST);
+        BCrypt.hashpw("calibration", salt);
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        double millis = Math.max(1, (System.nanoTime() - start) / 1_000_000.0);
+        // each step of the cost doubles the work
+        int calibrated = MIN_COST;
+        while (calibrated < MAX_COST && millis * 2 <= targetMillis) {
+            millis *= 2;
+            calibrated++;
+        }
+        cost = calibrated;
+        LOGGER.info("BCrypt cost set to " + calibrated + " (about " + Math.round(millis) + " ms per hash)");
+        return calibrated;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Too many sign-ins right now, please try again in a moment");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Too many sign-ins right now, please try again in a moment");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // hashes look like $2a$10$<salt and hash>
+    private static int costOf(String hashed) {
+        try {
+            return Integer.parseInt(hashed.substring(4, 6));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -1,15 +1,69 @@
 package com.gathergrid.gathergridfeatures.service;
 import com.gathergrid.gathergridfeatures.domain.Reservation;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.dto.AttendeeRow;
 import com.gathergrid.gathergridfeatures.repository.interfacesImpl.ReservationRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 public class ReservationService {
     private final ReservationRepository userRepository;
+    private final TicketInventory inventory;
 
     public ReservationService() {
-      userRepository = new ReservationRepository();
+      this(new ReservationRepository(), TicketInventory.getInstance());
+    }
+
+    ReservationService(ReservationRepository userRepository, TicketInventory inventory) {
+        this.userRepository = userRepository;
+        this.inventory = inventory;
     }
 
     public Reservation save(Reservation reservation){
          userRepository.save(reservation);
         return reservation ;
     }
+
+    /** The event's attendees for export, streamed from the database; close the stream when done. */
+    public Stream<AttendeeRow> streamAttendees(long eventId) {
+        return userRepository.streamAttendees(eventId);
+    }
+
+    /**
+     * Books the requested number of seats for each ticket type. Seats are taken from
+     * {@link TicketInventory} first, all types or none, so sold-out requests fail without touching
+     * the database; the reservations (one per seat) are then batch-inserted in a single
+     * transaction, dated as the inventory says, and the seats are given back if the insert fails.
+     */
+    public List<Reservation> reserve(User user, Map<Ticket, Integer> quantities) {
+        Map<Long, Integer> byTicket = new HashMap<>();
+        Map<Long, Ticket> tickets = new HashMap<>();
+        for (Map.Entry<Ticket, Integer> entry : quantities.entrySet()) {
+            if (entry.getValue() <= 0)
+                continue;
+            byTicket.merge(entry.getKey().getId(), entry.getValue(), Integer::sum);
+            tickets.putIfAbsent(entry.getKey().getId(), entry.getKey());
+        }
+        LocalDateTime reservedAt = inventory.tryReserve(byTicket);
+        if (reservedAt == null)
+            throw new IllegalStateException("Tickets is not Available !!");
+        try {
+            List<Reservation> reservations = new ArrayList<>();
+            byTicket.forEach((ticketId, quantity) -> {
+                for (int i = 0; i < quantity; i++) {
+                    reservations.add(new Reservation(reservedAt, user, tickets.get(ticketId)));
+                }
+            });
+            userRepository.saveAll(reservations);
+            return reservations;
+        } catch (RuntimeException e) {
+            byTicket.forEach(inventory::release);
+            throw e;
+        }
+    }
 }
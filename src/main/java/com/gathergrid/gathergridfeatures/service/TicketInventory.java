@@ -0,0 +1,267 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.repository.TicketRepository;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the remaining stock of every ticket that has been sold since startup in memory.
+ * Reservations take seats with a compare-and-set on the ticket's own counter, so sold-out
+ * requests are rejected without a database round trip and different tickets never contend.
+ * The net change per ticket is written back to the tickets table in periodic batches;
+ * {@link TicketRepository#loadAvailableQuantity(long, LocalDateTime)} rebuilds the exact count
+ * after a restart.
+ * <p>
+ * That count relies on reservation dates: a flush stamps the tickets it writes, and the
+ * reservations dated after the stamp are the ones it did not cover. So reservations are dated by
+ * {@link #tryReserve(Map)} from the same strictly increasing clock as the flushes, and a flush
+ * takes its stamp and drains the counters while no reservation is between dating itself and
+ * taking its seats.
+ */
+public class TicketInventory {
+    private static final Logger LOGGER = Logger.getLogger(TicketInventory.class.getName());
+    private static final TicketInventory INSTANCE =
+            new TicketInventory(new TicketRepository(), Long.getLong("gathergrid.inventory.flushMillis", 500));
+
+    private final TicketRepository ticketRepository;
+    private final long flushMillis;
+    private final ConcurrentHashMap<Long, Stock> stocks = new ConcurrentHashMap<>();
+    // shared by reservations, exclusive for the flush
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final AtomicLong lastStampMicros = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private ScheduledExecutorService flusher;
+
+    private static class Stock {
+        final AtomicInteger available;
+        final AtomicInteger unflushed = new AtomicInteger();
+        // set under the flush lock once the stock is out of the map, after which no seat is taken from it
+        volatile boolean evicted;
+
+        Stock(int available) {
+            this.available = new AtomicInteger(available);
+        }
+    }
+
+    TicketInventory(TicketRepository ticketRepository, long flushMillis) {
+        this.ticketRepository = ticketRepository;
+        this.flushMillis = flushMillis;
+    }
+
+    public static TicketInventory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Takes the seats of every ticket, all or none, and returns the date the reservations must
+     * carry, or null when one of the tickets has too few seats left.
+     */
+    public LocalDateTime tryReserve(Map<Long, Integer> quantities) {
+        while (true) {
+            Map<Stock, Integer> wanted = new HashMap<>();
+            quantities.forEach((ticketId, quantity) -> wanted.merge(stock(ticketId), quantity, Integer::sum));
+            flushLock.readLock().lock();
+            try {
+                if (wanted.keySet().stream().anyMatch(stock -> stock.evicted)) {
+                    // a ticket was evicted since it was looked up: look it up again
+                    continue;
+                }
+                LocalDateTime reservedAt = stamp();
+                Map<Stock, Integer> taken = new HashMap<>();
+                for (Map.Entry<Stock, Integer> entry : wanted.entrySet()) {
+                    if (!take(entry.getKey(), entry.getValue())) {
+                        taken.forEach(TicketInventory::giveBack);
+                        return null;
+                    }
+                    taken.put(entry.getKey(), entry.getValue());
+                }
+                return reservedAt;
+            } finally {
+                flushLock.readLock().unlock();
+            }
+        }
+    }
+
+    private static boolean take(Stock stock, int quantity) {
+        while (true) {
+            int available = stock.available.get();
+            if (available < quantity) {
+                return false;
+            }
+            if (stock.available.compareAndSet(available, available - quantity)) {
+                stock.unflushed.addAndGet(quantity);
+                return true;
+            }
+        }
+    }
+
+    private static void giveBack(Stock stock, int quantity) {
+        stock.unflushed.addAndGet(-quantity);
+        stock.available.addAndGet(quantity);
+    }
+
+    /** Gives back seats taken by {@link #tryReserve(Map)} when the reservations could not be saved. */
+    public void release(long ticketId, int quantity) {
+        giveBack(stock(ticketId), quantity);
+    }
+
+    public int getAvailable(long ticketId) {
+        return stock(ticketId).available.get();
+    }
+
+    /** Tickets held in memory. */
+    int size() {
+        return stocks.size();
+    }
+
+    /**
+     * Writes pending changes for the ticket and drops it from memory, so the next reservation
+     * reloads it. Must be called before anything else changes quantityAvailable in the database,
+     * in the same transaction and with the ticket row locked, so the reload waits for the change
+     * to commit; see {@link TicketService#updateTicket(com.gathergrid.gathergridfeatures.domain.Ticket)}.
+     */
+    public void evict(long ticketId) {
+        Stock stock;
+        flushLock.writeLock().lock();
+        try {
+            evictions.incrementAndGet();
+            stock = stocks.remove(ticketId);
+            if (stock != null) {
+                stock.evicted = true;
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (stock != null) {
+            flush(Map.of(ticketId, stock));
+        }
+    }
+
+    public void flush() {
+        flush(stocks);
+    }
+
+    private void flush(Map<Long, Stock> toFlush) {
+        // every reservation dated before the stamp has taken its seats, every later one has not
+        LocalDateTime flushedAt;
+        Map<Long, Integer> deltas = new HashMap<>();
+        flushLock.writeLock().lock();
+        try {
+            flushedAt = stamp();
+            toFlush.forEach((id, stock) -> {
+                int delta = stock.unflushed.getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(id, delta);
+                }
+            });
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            ticketRepository.applyQuantityDeltas(deltas, flushedAt);
+        } catch (RuntimeException e) {
+            deltas.forEach((id, delta) -> {
+                Stock stock = toFlush.get(id);
+                stock.unflushed.addAndGet(delta);
+            });
+            throw e;
+        }
+    }
+
+    public synchronized void start() {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ticket-inventory-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Ticket inventory flush failed, retrying on next run", e);
+            } finally {
+                EntityManagerUtil.closeEntityManager();
+            }
+        }, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushMillis * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        try {
+            flush();
+        } finally {
+            EntityManagerUtil.closeEntityManager();
+        }
+    }
+
+    /**
+     * The ticket's counters, loaded on first use. The load waits on a row lock, so it runs outside
+     * the map rather than in computeIfAbsent, which would block other tickets hashed nearby; when
+     * two threads load the same ticket the first one's counters are kept. Tickets that do not exist
+     * get empty counters that are not kept, so made-up ids cannot fill the map.
+     */
+    private Stock stock(long ticketId) {
+        while (true) {
+            Stock stock = stocks.get(ticketId);
+            if (stock != null) {
+                return stock;
+            }
+            long seenEvictions = evictions.get();
+            OptionalInt available = ticketRepository.loadAvailableQuantity(ticketId, stamp());
+            if (available.isEmpty()) {
+                return new Stock(0);
+            }
+            Stock loaded = new Stock(available.getAsInt());
+            flushLock.readLock().lock();
+            try {
+                // an eviction during the load may have been for this ticket, and the count it read is then stale
+                if (evictions.get() == seenEvictions) {
+                    Stock raced = stocks.putIfAbsent(ticketId, loaded);
+                    return raced != null ? raced : loaded;
+                }
+            } finally {
+                flushLock.readLock().unlock();
+            }
+        }
+    }
+
+    // the time in microseconds, the precision of the datetime columns, never twice the same
+    private LocalDateTime stamp() {
+        Instant now = Instant.now();
+        long micros = lastStampMicros.accumulateAndGet(
+                TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano()),
+                (last, current) -> Math.max(last + 1, current));
+        return LocalDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneId.systemDefault());
+    }
+}
@@ -4,15 +4,22 @@ import com.gathergrid.gathergridfeatures.domain.Event;
 import com.gathergrid.gathergridfeatures.domain.Ticket;
 import com.gathergrid.gathergridfeatures.repository.TicketRepository;
 import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class TicketService {
     private final TicketRepository ticketRepository;
+    private final TicketInventory inventory;
 
     public TicketService() {
-        ticketRepository = new TicketRepository();
+        this(new TicketRepository(), TicketInventory.getInstance());
+    }
+
+    TicketService(TicketRepository ticketRepository, TicketInventory inventory) {
+        this.ticketRepository = ticketRepository;
+        this.inventory = inventory;
     }
 
     public Ticket createTicket(Ticket ticket) {
@@ -20,21 +27,38 @@ public class TicketService {
         return ticketRepository.save(ticket);
     }
 
+    /**
+     * Replaces the ticket, quantityAvailable being the exact stock from now on. The row stays
+     * locked from before the inventory lets go of the ticket until the change commits, so a
+     * reservation reloading it meanwhile waits for the new quantity instead of selling from the old.
+     */
     public void updateTicket(Ticket ticket) throws Exception {
         validateTicket(ticket);
-        Ticket existingTicket = ticketRepository.find(ticket.getId());
-        if (existingTicket != null) {
+        boolean found = EntityManagerUtil.executeInTransaction(em -> {
+            if (ticketRepository.lock(ticket.getId()) == null) {
+                return false;
+            }
+            inventory.evict(ticket.getId());
+            // reservations made so far are already in the organizer's count, see TicketRepository.loadAvailableQuantity
+            ticket.setInventoryFlushedAt(null);
             ticketRepository.update(ticket);
-        } else {
+            return true;
+        });
+        if (!found) {
             throw new Exception("Ticket not found");
         }
     }
 
     public void deleteTicket(long id) throws Exception {
-        Ticket existingTicket = ticketRepository.find(id);
-        if (existingTicket != null) {
+        boolean found = EntityManagerUtil.executeInTransaction(em -> {
+            if (ticketRepository.lock(id) == null) {
+                return false;
+            }
+            inventory.evict(id);
             ticketRepository.delete(id);
-        } else {
+            return true;
+        });
+        if (!found) {
             throw new Exception("Ticket not found");
         }
     }
@@ -56,7 +80,8 @@ public class TicketService {
         return new ArrayList<>();
     }
 
-    private void validateTicket(Ticket ticket) {
+    /** The rules every ticket tier must follow, also applied to imported events. */
+    public static void validateTicket(Ticket ticket) {
         if (ticket.getPrice() <= 0) {
             throw new IllegalArgumentException("Price must be greater than zero");
         }
@@ -2,36 +2,82 @@ package com.gathergrid.gathergridfeatures.service;
 
 import com.gathergrid.gathergridfeatures.domain.User;
 import com.gathergrid.gathergridfeatures.repository.interfacesImpl.UserRepository;
-import org.mindrot.jbcrypt.BCrypt;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
 
 import java.util.Optional;
+import java.util.logging.Logger;
 
 public class UserService {
+    private static final Logger LOGGER = Logger.getLogger(UserService.class.getName());
     private final UserRepository<User> userRepository;
+    private final PasswordHasher passwordHasher;
+    private final KnownEmails knownEmails;
 
     public UserService() {
-        userRepository = new UserRepository<>();
+        this(new UserRepository<>(), KnownEmails.getInstance(), PasswordHasher.getInstance());
     }
 
+    UserService(UserRepository<User> userRepository, KnownEmails knownEmails, PasswordHasher passwordHasher) {
+        this.userRepository = userRepository;
+        this.knownEmails = knownEmails;
+        this.passwordHasher = passwordHasher;
+    }
+
+    /** Empty when the email is already registered. */
     public Optional<User> save(User user){
-        Optional<User> byEmail = userRepository.findByEmail(user);
-        if (byEmail.isEmpty()) {
-            userRepository.save(user);
-            return Optional.of(user);
-        } else {
+        if (knownEmails.mightExist(user.getEmail()) && userRepository.findByEmail(user).isPresent()) {
             return Optional.empty();
         }
+        try {
+            userRepository.save(user);
+        } catch (PersistenceException e) {
+            // registered concurrently: the unique constraint on users.email has the last word
+            if (e.getCause() instanceof ConstraintViolationException || e instanceof ConstraintViolationException) {
+                EntityManagerUtil.closeEntityManager();
+                return Optional.empty();
+            }
+            throw e;
+        }
+        knownEmails.add(user.getEmail());
+        return Optional.of(user);
     }
+    /**
+     * Checks the password on the hashing pool. A correct password stored with an outdated cost
+     * is hashed again with the current one when the pool has room; otherwise the old hash is kept
+     * until a later sign-in, since the password has already been checked.
+     *
+     * @throws IllegalStateException when the hashing pool is too saturated to check the password
+     */
     public Optional<User> CheckEmail(User user){
+        // no Bloom filter here: it is per node and loaded at startup, so it can miss users
+        // registered since on another node; the lookup is served from the email cache instead
         Optional<User> user1 = userRepository.findByEmail(user);
         if(user1.isPresent()) {
-            if(BCrypt.checkpw(user.getPassword(), user1.get().getPassword())) {
+            User stored = user1.get();
+            if(passwordHasher.verify(user.getPassword(), stored.getPassword())) {
+                if (passwordHasher.needsRehash(stored.getPassword())) {
+                    rehash(stored, user.getPassword());
+                }
                 return user1;
             }
         }
         return Optional.empty();
     }
 
+    private void rehash(User stored, String plainPassword) {
+        String rehashed;
+        try {
+            rehashed = passwordHasher.hash(plainPassword);
+        } catch (IllegalStateException e) {
+            LOGGER.fine("Hashing pool saturated, keeping the outdated hash of user " + stored.getId() + " for now");
+            return;
+        }
+        stored.setPassword(rehashed);
+        userRepository.update(User.class, stored.getId(), stored);
+    }
+
     public User getById(long id) {
         return userRepository.findById(User.class, id);
     }
@@ -0,0 +1,40 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter that moves whenever something shown on the event pages is written: events, tickets,
+ * comments or categories. Pages rendered under the same version are identical, which is what
+ * {@link com.gathergrid.gathergridfeatures.filter.PageCacheFilter} relies on.
+ * <p>
+ * Repositories call {@link #bumpAfterCommit(EntityManager)} inside their transaction. The version
+ * moves only once the data is committed, so a page rendered under the new version can never show
+ * the data as it was before the write. The version is per JVM, like the other in-memory caches.
+ */
+public final class CatalogVersion {
+    private static final AtomicLong VERSION = new AtomicLong();
+    private static volatile long lastModified = System.currentTimeMillis();
+
+    private CatalogVersion() {}
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    /** When the version last moved, in epoch milliseconds. */
+    public static long lastModified() {
+        return lastModified;
+    }
+
+    public static void bump() {
+        lastModified = System.currentTimeMillis();
+        VERSION.incrementAndGet();
+    }
+
+    /** Bumps the version when the entity manager's transaction commits, or straight away when none is active. */
+    public static void bumpAfterCommit(EntityManager em) {
+        EntityManagerUtil.afterCommit(em, CatalogVersion::bump);
+    }
+}
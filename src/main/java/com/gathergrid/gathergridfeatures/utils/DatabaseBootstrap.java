@@ -0,0 +1,119 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Builds the persistence unit and brings the database up to date, in the way {@code
+ * gathergrid.schema.mode} asks for:
+ * <ul>
+ *     <li>{@code migrate}, the default: applies the pending migrations of {@code db/migration},
+ *     then checks the tables against the entity mappings;</li>
+ *     <li>{@code validate}: only checks, failing when a migration is pending or the tables differ
+ *     from the mappings, for nodes started while another one or a deployment job migrates;</li>
+ *     <li>{@code create}: drops and recreates the tables from the mappings, for tests and local
+ *     development.</li>
+ * </ul>
+ * Reference data is then seeded when missing. Migrations reuse the Hikari pool of the
+ * persistence unit, so no second set of connection settings is needed; {@code flyway.*} system
+ * properties are passed on to Flyway.
+ */
+final class DatabaseBootstrap {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseBootstrap.class.getName());
+    static final String PERSISTENCE_UNIT = "my-persistence-unit";
+    private static final String SCHEMA_ACTION = "jakarta.persistence.schema-generation.database.action";
+
+    enum Mode {
+        MIGRATE, VALIDATE, CREATE;
+
+        static Mode current() {
+            String mode = System.getProperty("gathergrid.schema.mode", "migrate");
+            try {
+                return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("gathergrid.schema.mode must be migrate, validate or create, not " + mode);
+            }
+        }
+    }
+
+    private DatabaseBootstrap() {}
+
+    static EntityManagerFactory start() {
+        return start(Mode.current(), overrides());
+    }
+
+    static EntityManagerFactory start(Mode mode, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        Map<String, String> flywayProperties = new HashMap<>();
+        overrides.forEach((name, value) -> {
+            if (name.startsWith("flyway.")) {
+                flywayProperties.put(name, String.valueOf(value));
+            } else {
+                properties.put(name, value);
+            }
+        });
+        properties.put(SCHEMA_ACTION, mode == Mode.CREATE ? "drop-and-create" : "none");
+        LOGGER.info("Starting the persistence unit with schema mode " + mode.name().toLowerCase(Locale.ROOT));
+        EntityManagerFactory emf = StartupTimings.time("hibernate bootstrap",
+                () -> Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties));
+        try {
+            if (mode != Mode.CREATE) {
+                Flyway flyway = Flyway.configure()
+                        .locations("classpath:db/migration")
+                        // databases created by drop-and-create before migrations have exactly the V1 tables
+                        .baselineOnMigrate(true)
+                        .baselineVersion("1")
+                        .configuration(flywayProperties)
+                        .dataSource(dataSourceOf(emf))
+                        .load();
+                if (mode == Mode.MIGRATE) {
+                    StartupTimings.time("migrations", () -> {
+                        int applied = flyway.migrate().migrationsExecuted;
+                        LOGGER.info("Applied " + applied + " migrations, schema at version " + flyway.info().current().getVersion());
+                    });
+                } else {
+                    StartupTimings.time("migration check", flyway::validate);
+                }
+                StartupTimings.time("schema validation",
+                        () -> emf.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects());
+            }
+            StartupTimings.time("reference data", () -> ReferenceData.seed(emf, mode == Mode.CREATE));
+        } catch (RuntimeException e) {
+            emf.close();
+            throw e;
+        }
+        return emf;
+    }
+
+    /**
+     * System properties named {@code hibernate.*} or {@code jakarta.persistence.*} take precedence
+     * over persistence.xml, so pool sizing and connection settings can be tuned per deployment.
+     * Those named {@code flyway.*} configure the migrations.
+     */
+    static Map<String, Object> overrides() {
+        Map<String, Object> overrides = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("jakarta.persistence.") || name.startsWith("flyway.")) {
+                overrides.put(name, System.getProperty(name));
+            }
+        }
+        return overrides;
+    }
+
+    private static DataSource dataSourceOf(EntityManagerFactory emf) {
+        return emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class)
+                .unwrap(DataSource.class);
+    }
+}
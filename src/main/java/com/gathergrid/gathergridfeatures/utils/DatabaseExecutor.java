@@ -0,0 +1,115 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The threads that do blocking repository work for asynchronous requests. It is sized like the
+ * connection pool ({@code gathergrid.db.threads}, 20 by default) since more threads would only
+ * wait for a connection, and its queue ({@code gathergrid.db.queueCapacity}) is bounded so an
+ * overloaded node turns requests away instead of letting them wait for minutes.
+ * <p>
+ * Sign-in and sign-up get a pool of their own ({@code gathergrid.signin.threads}, 8 by default,
+ * and {@code gathergrid.signin.queueCapacity}): their threads spend most of their time waiting
+ * for the password hasher, and a burst of them must not take the workers pages are rendered on.
+ * <p>
+ * Every task closes its thread's {@link jakarta.persistence.EntityManager} when it ends, the
+ * job {@code EntityManagerFilter} does for work on container threads.
+ */
+public class DatabaseExecutor {
+    private static final DatabaseExecutor INSTANCE = new DatabaseExecutor(
+            Integer.getInteger("gathergrid.db.threads", 20),
+            Integer.getInteger("gathergrid.db.queueCapacity", 1000));
+    private static final DatabaseExecutor SIGN_INS = new DatabaseExecutor("signin-worker-",
+            Integer.getInteger("gathergrid.signin.threads", 8),
+            Integer.getInteger("gathergrid.signin.queueCapacity", 200));
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final LongAdder rejected = new LongAdder();
+
+    DatabaseExecutor(int threads, int queueCapacity) {
+        this("db-worker-", threads, queueCapacity);
+    }
+
+    private DatabaseExecutor(String threadName, int threads, int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, threadName + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.queueCapacity = queueCapacity;
+    }
+
+    public static DatabaseExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /** The pool for sign-in and sign-up requests. */
+    public static DatabaseExecutor forSignIns() {
+        return SIGN_INS;
+    }
+
+    /**
+     * Queues the task for the next free worker.
+     *
+     * @throws IllegalStateException when every worker is busy and the queue is full
+     */
+    public void execute(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    EntityManagerUtil.closeEntityManager();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new IllegalStateException("The server is busy right now, please try again in a moment");
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /** Stops taking tasks and gives the running ones a few seconds to finish. */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+}
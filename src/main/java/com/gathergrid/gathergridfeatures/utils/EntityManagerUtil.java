@@ -2,23 +2,159 @@ package com.gathergrid.gathergridfeatures.utils;
 
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.*;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Hands out one EntityManager per thread. Servlet requests get theirs bound by
+ * {@link com.gathergrid.gathergridfeatures.filter.EntityManagerFilter}, which closes it
+ * once the response is done, so nothing is shared between concurrent requests.
+ */
 public class EntityManagerUtil {
-    private static final EntityManagerFactory emf = Persistence.createEntityManagerFactory("my-persistence-unit");
-    private static EntityManager entityManager;
+    private static final ThreadLocal<EntityManager> entityManager = new ThreadLocal<>();
+
+    // built on first use, see DatabaseBootstrap for what that involves
+    private static class Factory {
+        static final EntityManagerFactory emf = DatabaseBootstrap.start();
+    }
 
     private EntityManagerUtil() {}
 
+    /**
+     * Builds the persistence unit and migrates the database if that has not happened yet.
+     * Called first thing at deployment so a broken schema stops the application before it serves
+     * anything; everything else gets the same factory on first use.
+     */
+    public static void start() {
+        Factory.emf.isOpen();
+    }
+
     public static EntityManager getEntityManager() {
-        if (entityManager == null || !entityManager.isOpen()) {
-            entityManager = emf.createEntityManager();
+        EntityManager em = entityManager.get();
+        if (em == null || !em.isOpen()) {
+            em = Factory.emf.createEntityManager();
+            entityManager.set(em);
         }
-        return entityManager;
+        return em;
+    }
+
+    /** Hibernate statistics for the persistence unit, including second-level and query cache hits and misses. */
+    public static Statistics getStatistics() {
+        return Factory.emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /** The JDBC batch size configured for the persistence unit; bulk writes flush and clear at this interval. */
+    public static int getBatchSize() {
+        Object batchSize = Factory.emf.getProperties().get("hibernate.jdbc.batch_size");
+        return batchSize == null ? 1 : Integer.parseInt(batchSize.toString());
+    }
+
+    /**
+     * Persists every entity in one transaction, flushing after each batch and detaching what it
+     * wrote, so a large list turns into one insert round trip per batch and does not stay
+     * managed. Only this call's entities are detached: the transaction may be the caller's, who
+     * still works with the entities it loaded.
+     */
+    public static <T> void persistInBatches(List<T> entities) {
+        int batchSize = getBatchSize();
+        runInTransaction(em -> {
+            for (int i = 0; i < entities.size(); i++) {
+                if (i > 0 && i % batchSize == 0) {
+                    em.flush();
+                    entities.subList(i - batchSize, i).forEach(em::detach);
+                }
+                em.persist(entities.get(i));
+            }
+        });
     }
 
     public static void closeEntityManager() {
-        if (entityManager != null && entityManager.isOpen()) {
-            entityManager.close();
+        EntityManager em = entityManager.get();
+        entityManager.remove();
+        if (em != null && em.isOpen()) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    /**
+     * Runs the work inside a transaction on the current thread's EntityManager.
+     * If a transaction is already active the work joins it, so services can group
+     * several repository calls into one unit of work.
+     */
+    public static <T> T executeInTransaction(Function<EntityManager, T> work) {
+        EntityManager em = getEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        if (transaction.isActive()) {
+            return work.apply(em);
+        }
+        transaction.begin();
+        try {
+            T result = work.apply(em);
+            transaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        }
+    }
+
+    public static void runInTransaction(Consumer<EntityManager> work) {
+        executeInTransaction(em -> {
+            work.accept(em);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the work in a transaction of its own on a fresh EntityManager, which commits or rolls
+     * back regardless of the current thread's transaction.
+     */
+    public static void runInNewTransaction(Consumer<EntityManager> work) {
+        EntityManager em = Factory.emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+
+    /**
+     * Runs the action once the entity manager's transaction commits, or straight away when none
+     * is active. For in-memory state that mirrors the database: a transaction the work joined
+     * commits only when its caller's does, and nothing is run if it rolls back.
+     */
+    public static void afterCommit(EntityManager em, Runnable action) {
+        if (!em.getTransaction().isActive()) {
+            action.run();
+            return;
         }
+        em.unwrap(Session.class).getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,54 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in an event listing ordered by (date, id): the next page starts strictly after it.
+ * Serialised as {@code <date>_<id>} so it can travel in a query string.
+ */
+public class EventCursor {
+    private final LocalDateTime date;
+    private final long id;
+
+    public EventCursor(LocalDateTime date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static EventCursor of(Event event) {
+        return new EventCursor(event.getDate(), event.getId());
+    }
+
+    /** Returns null for a missing or malformed cursor, which means "first page". */
+    public static EventCursor parse(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        int separator = cursor.lastIndexOf('_');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            return new EventCursor(LocalDateTime.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return date + "_" + id;
+    }
+}
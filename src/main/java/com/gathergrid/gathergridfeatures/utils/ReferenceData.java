@@ -0,0 +1,58 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Rows the application expects to find, inserted only when missing so seeding can run on every
+ * start. The demo organizer is only wanted on development databases that are recreated at each
+ * start, never on one kept between deployments.
+ */
+final class ReferenceData {
+    private static final Logger LOGGER = Logger.getLogger(ReferenceData.class.getName());
+    static final List<String> CATEGORIES = List.of("Music", "Science", "Health", "Sport", "Computer science",
+            "css", "Animals", "Food", "Combat sport", "Islam");
+    private static final String DEMO_EMAIL = "mohammed@gmail.com";
+
+    private ReferenceData() {}
+
+    /** Returns the number of rows inserted. */
+    static int seed(EntityManagerFactory emf, boolean demoData) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Set<String> existing = new HashSet<>(
+                    em.createQuery("SELECT c.name FROM Category c", String.class).getResultList());
+            int inserted = 0;
+            for (String name : CATEGORIES) {
+                if (!existing.contains(name)) {
+                    em.persist(new Category(name));
+                    inserted++;
+                }
+            }
+            if (demoData && em.createQuery("SELECT COUNT(u) FROM User u WHERE u.email = :email", Long.class)
+                    .setParameter("email", DEMO_EMAIL)
+                    .getSingleResult() == 0) {
+                em.persist(new User("mohammed", "mohammed", DEMO_EMAIL, "password"));
+                inserted++;
+            }
+            em.getTransaction().commit();
+            if (inserted > 0) {
+                LOGGER.info("Inserted " + inserted + " missing reference rows");
+            }
+            return inserted;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import jakarta.persistence.Parameter;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Times repository calls. A call slower than {@code gathergrid.slowQuery.thresholdMillis} (200 by
+ * default) is logged with its JPQL, bound parameters and row count. Every call also counts
+ * towards the statistics of its shape, meaning the repository method plus the JPQL without
+ * parameter values. Statistics are kept for the current and the previous window of {@code
+ * gathergrid.slowQuery.windowMinutes}, so {@link #top(int, Comparator)} covers recent traffic
+ * only.
+ * <p>
+ * Writes without a query of their own, such as persist or merge, are timed with {@link
+ * #timed(String, Supplier)} and appear under the repository method alone.
+ */
+public final class SlowQueryLog {
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+    private static final long THRESHOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("gathergrid.slowQuery.thresholdMillis", 200));
+    private static final long WINDOW_NANOS =
+            TimeUnit.MINUTES.toNanos(Long.getLong("gathergrid.slowQuery.windowMinutes", 10));
+    // shapes are bounded by the code, this only guards against JPQL built from user input
+    private static final int MAX_SHAPES = 1000;
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private static volatile Window current = new Window(System.nanoTime());
+    private static volatile Window previous = new Window(System.nanoTime());
+
+    private static class Window {
+        final long start;
+        final ConcurrentHashMap<String, QueryShape> shapes = new ConcurrentHashMap<>();
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+
+    /** Call statistics of one repository method and JPQL, see {@link #top(int, Comparator)}. */
+    public static class QueryShape {
+        private final String operation;
+        private final String jpql;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder slowCount = new LongAdder();
+        private volatile String lastSlowParameters;
+        private volatile long lastSlowRows;
+        private volatile LocalDateTime lastSlowAt;
+
+        QueryShape(String operation, String jpql) {
+            this.operation = operation;
+            this.jpql = jpql;
+        }
+
+        void record(long nanos, long rows, Supplier<String> parameters) {
+            count.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+            if (nanos >= THRESHOLD_NANOS) {
+                slowCount.increment();
+                lastSlowParameters = parameters.get();
+                lastSlowRows = rows;
+                lastSlowAt = LocalDateTime.now();
+            }
+        }
+
+        void absorb(QueryShape other) {
+            count.add(other.count.sum());
+            totalNanos.add(other.totalNanos.sum());
+            maxNanos.accumulateAndGet(other.maxNanos.get(), Math::max);
+            slowCount.add(other.slowCount.sum());
+            if (other.lastSlowAt != null && (lastSlowAt == null || other.lastSlowAt.isAfter(lastSlowAt))) {
+                lastSlowParameters = other.lastSlowParameters;
+                lastSlowRows = other.lastSlowRows;
+                lastSlowAt = other.lastSlowAt;
+            }
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        /** Null for calls timed without a query. */
+        public String getJpql() {
+            return jpql;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1e6;
+        }
+
+        public double getAverageMillis() {
+            long calls = count.sum();
+            return calls == 0 ? 0 : totalNanos.sum() / 1e6 / calls;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        public long getSlowCount() {
+            return slowCount.sum();
+        }
+
+        public String getLastSlowParameters() {
+            return lastSlowParameters;
+        }
+
+        public long getLastSlowRows() {
+            return lastSlowRows;
+        }
+
+        public LocalDateTime getLastSlowAt() {
+            return lastSlowAt;
+        }
+    }
+
+    public static final Comparator<QueryShape> BY_MAX = Comparator.comparingDouble(QueryShape::getMaxMillis).reversed();
+    public static final Comparator<QueryShape> BY_TOTAL = Comparator.comparingDouble(QueryShape::getTotalMillis).reversed();
+
+    private SlowQueryLog() {}
+
+    public static <T> List<T> list(String operation, TypedQuery<T> query) {
+        long start = System.nanoTime();
+        List<T> rows = query.getResultList();
+        record(operation, jpqlOf(query), System.nanoTime() - start, rows.size(), () -> parametersOf(query));
+        return rows;
+    }
+
+    public static <T> T single(String operation, TypedQuery<T> query) {
+        long start = System.nanoTime();
+        T row = query.getSingleResult();
+        record(operation, jpqlOf(query), System.nanoTime() - start, 1, () -> parametersOf(query));
+        return row;
+    }
+
+    /** Timed from the query until the stream is closed, counting the rows read on the way. */
+    public static <T> Stream<T> stream(String operation, TypedQuery<T> query) {
+        long start = System.nanoTime();
+        LongAdder rows = new LongAdder();
+        String jpql = jpqlOf(query);
+        return query.getResultStream()
+                .peek(row -> rows.increment())
+                .onClose(() -> record(operation, jpql, System.nanoTime() - start, rows.sum(), () -> parametersOf(query)));
+    }
+
+    /** Times a call that runs no JPQL of its own; collections count as their size in rows. */
+    public static <T> T timed(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        long rows = result == null ? 0 : result instanceof Collection ? ((Collection<?>) result).size() : 1;
+        record(operation, null, System.nanoTime() - start, rows, () -> "");
+        return result;
+    }
+
+    public static void timed(String operation, Runnable call) {
+        long start = System.nanoTime();
+        call.run();
+        record(operation, null, System.nanoTime() - start, 0, () -> "");
+    }
+
+    /** The slowest shapes of the current and previous window, merged. */
+    public static List<QueryShape> top(int limit, Comparator<QueryShape> order) {
+        Map<String, QueryShape> merged = new HashMap<>();
+        for (Window window : new Window[]{previous, current}) {
+            window.shapes.forEach((key, shape) ->
+                    merged.computeIfAbsent(key, k -> new QueryShape(shape.operation, shape.jpql)).absorb(shape));
+        }
+        List<QueryShape> shapes = new ArrayList<>(merged.values());
+        shapes.sort(order);
+        return shapes.size() > limit ? new ArrayList<>(shapes.subList(0, limit)) : shapes;
+    }
+
+    public static long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(THRESHOLD_NANOS);
+    }
+
+    public static long getWindowMinutes() {
+        return TimeUnit.NANOSECONDS.toMinutes(WINDOW_NANOS);
+    }
+
+    public static synchronized void reset() {
+        previous = new Window(System.nanoTime());
+        current = new Window(System.nanoTime());
+    }
+
+    private static void record(String operation, String jpql, long nanos, long rows, Supplier<String> parameters) {
+        Window window = current(System.nanoTime());
+        String key = jpql == null ? operation : operation + '\n' + jpql;
+        QueryShape shape = window.shapes.get(key);
+        if (shape == null) {
+            if (window.shapes.size() >= MAX_SHAPES) {
+                return;
+            }
+            shape = window.shapes.computeIfAbsent(key, k -> new QueryShape(operation, jpql));
+        }
+        shape.record(nanos, rows, parameters);
+        if (nanos >= THRESHOLD_NANOS) {
+            LOGGER.warning(String.format("Slow query: %s took %d ms, %d rows%s%s", operation,
+                    TimeUnit.NANOSECONDS.toMillis(nanos), rows,
+                    jpql == null ? "" : "\n  " + jpql,
+                    jpql == null ? "" : "\n  parameters: " + shape.lastSlowParameters));
+        }
+    }
+
+    private static Window current(long now) {
+        Window window = current;
+        if (now - window.start < WINDOW_NANOS) {
+            return window;
+        }
+        synchronized (SlowQueryLog.class) {
+            if (current == window) {
+                previous = window;
+                current = new Window(now);
+            }
+            return current;
+        }
+    }
+
+    private static String jpqlOf(TypedQuery<?> query) {
+        try {
+            return query.unwrap(org.hibernate.query.Query.class).getQueryString();
+        } catch (RuntimeException e) {
+            return query.toString();
+        }
+    }
+
+    private static String parametersOf(TypedQuery<?> query) {
+        List<String> bound = new ArrayList<>();
+        for (Parameter<?> parameter : query.getParameters()) {
+            String name = parameter.getName() != null ? parameter.getName() : "?" + parameter.getPosition();
+            Object value;
+            try {
+                value = query.getParameterValue(parameter);
+            } catch (IllegalStateException e) {
+                continue;
+            }
+            bound.add(name + "=" + describe(value));
+        }
+        if (query.getMaxResults() != Integer.MAX_VALUE) {
+            bound.add("maxResults=" + query.getMaxResults());
+        }
+        return bound.stream().sorted().collect(Collectors.joining(", "));
+    }
+
+    // lists of ids can be long; their size and first few values are enough to reproduce the query
+    private static String describe(Object value) {
+        if (value instanceof Collection) {
+            Collection<?> values = (Collection<?>) value;
+            String head = values.stream().limit(5).map(SlowQueryLog::describeOne).collect(Collectors.joining(", "));
+            return "[" + head + (values.size() > 5 ? ", ... " + values.size() + " values" : "") + "]";
+        }
+        return describeOne(value);
+    }
+
+    // entities are named by type only, their toString could touch lazy associations
+    private static String describeOne(Object value) {
+        if (value != null && !(value instanceof Number || value instanceof CharSequence || value instanceof Boolean
+                || value instanceof Enum || value instanceof java.time.temporal.Temporal)) {
+            return value.getClass().getSimpleName();
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+}
@@ -0,0 +1,59 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * How long each phase of the deployment took: the Hibernate bootstrap, migrations, schema
+ * validation and seeding, then the caches and indexes the listeners build. Each phase is logged
+ * as it ends, {@link #finish()} logs the whole breakdown once the application is ready, and the
+ * phases are exported on {@code /metrics}.
+ */
+public final class StartupTimings {
+    private static final Logger LOGGER = Logger.getLogger(StartupTimings.class.getName());
+    private static final Map<String, Long> PHASES = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private StartupTimings() {}
+
+    public static <T> T time(String phase, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void time(String phase, Runnable work) {
+        time(phase, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public static void record(String phase, long nanos) {
+        PHASES.put(phase, nanos);
+        LOGGER.info(() -> "Startup phase '" + phase + "' took " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+    }
+
+    /** Phase durations in nanoseconds, in the order they ran. */
+    public static Map<String, Long> getPhases() {
+        synchronized (PHASES) {
+            return new LinkedHashMap<>(PHASES);
+        }
+    }
+
+    /** Logs every phase and the time since the JVM started. */
+    public static void finish() {
+        StringBuilder summary = new StringBuilder("Application ready ")
+                .append(ManagementFactory.getRuntimeMXBean().getUptime()).append(" ms after JVM start");
+        getPhases().forEach((phase, nanos) -> summary.append("\n  ").append(phase).append(": ")
+                .append(TimeUnit.NANOSECONDS.toMillis(nanos)).append(" ms"));
+        LOGGER.info(summary.toString());
+    }
+}
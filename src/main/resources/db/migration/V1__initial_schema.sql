@@ -0,0 +1,63 @@
+-- Schema as Hibernate generated it for MySQL before migrations were introduced, when every id was an
+-- identity column. Databases created that way are baselined at this version instead of running it;
+-- their constraints carry Hibernate's generated names, which later migrations therefore never use.
+
+create table categories (
+    id bigint not null auto_increment,
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(255),
+    firstName varchar(255),
+    lastName varchar(255),
+    password varchar(255),
+    primary key (id),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+
+create table events (
+    id bigint not null auto_increment,
+    address varchar(255),
+    date datetime(6),
+    description text,
+    name varchar(255),
+    category_id bigint,
+    organizer_id bigint,
+    primary key (id),
+    constraint fk_events_category foreign key (category_id) references categories (id),
+    constraint fk_events_organizer foreign key (organizer_id) references users (id)
+) engine=InnoDB;
+
+create table tickets (
+    id bigint not null auto_increment,
+    price float(23) not null,
+    quantityAvailable integer not null,
+    type enum ('CHILD','SENIOR_CITIZEN','STANDARD','STUDENT','VIP'),
+    event_id bigint,
+    primary key (id),
+    constraint fk_tickets_event foreign key (event_id) references events (id)
+) engine=InnoDB;
+
+create table reservations (
+    id bigint not null auto_increment,
+    reservationDate datetime(6),
+    ticket_id bigint,
+    user_id bigint,
+    primary key (id),
+    constraint fk_reservations_ticket foreign key (ticket_id) references tickets (id),
+    constraint fk_reservations_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table comments (
+    id bigint not null auto_increment,
+    rating integer not null,
+    text text,
+    event_id bigint,
+    user_id bigint,
+    primary key (id),
+    constraint fk_comments_event foreign key (event_id) references events (id),
+    constraint fk_comments_user foreign key (user_id) references users (id)
+) engine=InnoDB;
@@ -0,0 +1,22 @@
+-- tickets, reservations and comments take their ids from a table emulating a sequence, 50 at a time,
+-- so batches of them are inserted with one statement. Hibernate's pooled optimizer hands out the 50
+-- ids up to the value it reads, so each table starts 50 past its highest existing id; an empty table
+-- starts at the initial value, 1. The id columns keep their auto_increment, which only applies when
+-- no id is given.
+create table tickets_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into tickets_seq select coalesce(max(id) + 50, 1) from tickets;
+
+create table reservations_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into reservations_seq select coalesce(max(id) + 50, 1) from reservations;
+
+create table comments_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into comments_seq select coalesce(max(id) + 50, 1) from comments;
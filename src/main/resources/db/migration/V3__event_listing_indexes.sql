@@ -0,0 +1,4 @@
+-- the event listings page by date, overall, per category and per organizer
+create index idx_events_date on events (date);
+create index idx_events_category_date on events (category_id, date);
+create index idx_events_organizer_date on events (organizer_id, date);
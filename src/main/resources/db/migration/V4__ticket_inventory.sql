@@ -0,0 +1,2 @@
+-- when the in-memory ticket inventory last wrote the row, see TicketInventory
+alter table tickets add column inventoryFlushedAt datetime(6);
@@ -0,0 +1,28 @@
+create table event_ratings (
+    eventId bigint not null,
+    histogram varchar(128),
+    ratingCount integer not null,
+    ratingSum bigint not null,
+    primary key (eventId)
+) engine=InnoDB;
+
+-- events created before the rating aggregate existed have no row; comments lock the row, so every
+-- event needs one, with the totals of the comments it already has
+insert into event_ratings (eventId, histogram, ratingCount, ratingSum)
+select e.id,
+       concat_ws(',',
+                 sum(case when c.rating = 1 then 1 else 0 end),
+                 sum(case when c.rating = 2 then 1 else 0 end),
+                 sum(case when c.rating = 3 then 1 else 0 end),
+                 sum(case when c.rating = 4 then 1 else 0 end),
+                 sum(case when c.rating = 5 then 1 else 0 end),
+                 sum(case when c.rating = 6 then 1 else 0 end),
+                 sum(case when c.rating = 7 then 1 else 0 end),
+                 sum(case when c.rating = 8 then 1 else 0 end),
+                 sum(case when c.rating = 9 then 1 else 0 end),
+                 sum(case when c.rating = 10 then 1 else 0 end)),
+       count(c.id),
+       coalesce(sum(c.rating), 0)
+from events e
+left join comments c on c.event_id = e.id
+group by e.id;
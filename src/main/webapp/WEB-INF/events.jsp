@@ -1,6 +1,8 @@
 <%@ page import="java.util.List" %>
 <%@ page import="com.gathergrid.gathergridfeatures.utils.DateUtil" %>
-<%@ page import="com.gathergrid.gathergridfeatures.domain.Event" %>
+<%@ page import="com.gathergrid.gathergridfeatures.domain.dto.EventSummary" %>
+<%@ page import="com.gathergrid.gathergridfeatures.domain.EventRating" %>
+<%@ page import="java.util.Map" %>
 <%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
 <%@ page contentType="text/html; charset=UTF-8" %>
 
@@ -94,15 +96,20 @@
             </c:if>
             <div class="flex flex-wrap -mx-4">
                 <%
-                    List<Event> events = (List<Event>) request.getAttribute("events");
-                    for (Event event: events) {
+                    List<EventSummary> events = (List<EventSummary>) request.getAttribute("events");
+                    Map<Long, EventRating> ratings = (Map<Long, EventRating>) request.getAttribute("ratings");
+                    for (EventSummary event: events) {
+                        EventRating rating = ratings.get(event.getId());
+                        int reviews = rating == null ? 0 : rating.getRatingCount();
+                        // ratings go up to 10, shown as five stars
+                        int stars = rating == null ? 0 : (int) Math.round(rating.getAverage() / 2);
                 %>
                 <!-- Card -->
                 <a href="showEvent?id=<%=event.getId()%>" class="w-full sm:w-1/2 lg:w-1/3 p-4">
                     <div class="max-w-sm rounded overflow-hidden shadow-lg hover:bg-gray-200">
                         <img
                                 class="w-full"
-                                src="images/card-top.jpg"
+                                src="${assets['/images/card-top.jpg']}"
                                 alt="Sunset in the mountains"
                         />
                         <div class="px-6 py-4">
@@ -111,7 +118,7 @@
                             </div>
                             <div class="flex items-center justify-between text-gray-500 text-sm">
                                 <span class="bg-gray-200 rounded-full px-3 py-1 text-sm font-semibold text-gray-700 mr-2 mb-2">
-                                    #<%=event.getCategory().getName()%>
+                                    #<%=event.getCategoryName()%>
                                 </span>
                                 <span class="py-1 mb-2">
 <%--                                    Date: October 19, 2023--%>
@@ -127,10 +134,10 @@
                             </p>
                             <div class="mt-4 flex items-center">
                                 <div class="text-yellow-400 text-2xl pr-2">
-                                    ★★★★☆
+                                    <%="★".repeat(stars) + "☆".repeat(5 - stars)%>
                                 </div>
                                 <span class="text-gray-500 text-sm"
-                                >4.0 (24 reviews)</span
+                                ><%=reviews == 0 ? "No reviews yet" : String.format("%.1f/10 (%d reviews)", rating.getAverage(), reviews)%></span
                                 >
                             </div>
                         </div>
@@ -141,6 +148,23 @@
                     }
                 %>
             </div>
+            <c:if test="${not empty nextCursor}">
+                <c:url var="nextPage" value="event">
+                    <c:param name="cursor" value="${nextCursor}"/>
+                    <c:if test="${param.search != null}">
+                        <c:param name="search" value=""/>
+                        <c:param name="fromdate" value="${param.fromdate}"/>
+                        <c:param name="todate" value="${param.todate}"/>
+                        <c:param name="text" value="${param.text}"/>
+                        <c:param name="category" value="${param.category}"/>
+                    </c:if>
+                </c:url>
+                <div class="flex justify-end mt-6">
+                    <a href="${nextPage}" class="px-4 py-2 rounded-lg text-orange-50 bg-orange-400 hover:bg-orange-500 font-bold text-white">
+                        Next &raquo;
+                    </a>
+                </div>
+            </c:if>
         </div>
         <script src="https://cdnjs.cloudflare.com/ajax/libs/flowbite/1.6.5/flowbite.min.js"></script>
     </body>
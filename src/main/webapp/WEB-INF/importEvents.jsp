@@ -0,0 +1,57 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<c:import url="../components/header.jsp" />
+<c:import url="../components/sideBar.jsp" />
+<c:import url="../components/navBar.jsp" />
+<div id="homeAdmin">
+    <div class="container-fluid p-4">
+        <h3>Import events</h3>
+        <p class="text-muted">
+            A CSV file has a header row with the columns <code>name</code>, <code>date</code> (such as 2024-06-01T20:00),
+            <code>address</code>, <code>description</code> and <code>category</code>, and a <code>vip_price</code> and
+            <code>vip_quantity</code> pair for each ticket tier (vip, standard, student, child, senior_citizen).
+            A JSON file is an array of events, each with a <code>tickets</code> array of <code>type</code>,
+            <code>price</code> and <code>quantity</code>. Categories that do not exist yet are created.
+        </p>
+        <form method="post" action="${pageContext.request.contextPath}/event/import" enctype="multipart/form-data" class="mb-4">
+            <div class="input-group">
+                <input type="file" name="file" accept=".csv,.json" class="form-control" required>
+                <button type="submit" class="btn btn-primary">Import</button>
+            </div>
+        </form>
+        <c:if test="${not empty error}">
+            <div class="alert alert-danger"><c:out value="${error}" /></div>
+        </c:if>
+        <c:if test="${report != null}">
+            <div class="alert ${report.failed == 0 && report.abortedBecause == null ? 'alert-success' : 'alert-warning'}">
+                ${report.imported} events imported, ${report.failed} rows rejected in ${report.millis} ms.
+                <c:if test="${report.abortedBecause != null}">
+                    <br/>The import stopped early: <c:out value="${report.abortedBecause}" />
+                </c:if>
+            </div>
+            <c:if test="${not empty report.errors}">
+                <table class="table table-sm table-striped align-middle">
+                    <thead>
+                    <tr>
+                        <th class="text-end">Event</th>
+                        <th class="text-end">Line</th>
+                        <th>Problem</th>
+                    </tr>
+                    </thead>
+                    <tbody>
+                    <c:forEach items="${report.errors}" var="rowError">
+                        <tr>
+                            <td class="text-end">${rowError.record}</td>
+                            <td class="text-end">${rowError.line}</td>
+                            <td><c:out value="${rowError.message}" /></td>
+                        </tr>
+                    </c:forEach>
+                    </tbody>
+                </table>
+                <c:if test="${report.errorListTruncated}">
+                    <p class="text-muted">Only the first ${report.errors.size()} rejected rows are listed.</p>
+                </c:if>
+            </c:if>
+        </c:if>
+    </div>
+</div>
+<c:import url="../components/footer.jsp" />
@@ -0,0 +1,62 @@
+<%@ taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@ taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
+<c:import url="../components/header.jsp" />
+<c:import url="../components/sideBar.jsp" />
+<c:import url="../components/navBar.jsp" />
+<div id="homeAdmin">
+    <div class="container-fluid p-4">
+        <div class="d-flex justify-content-between align-items-center mb-3">
+            <h3>Slowest queries</h3>
+            <form method="post" action="${pageContext.request.contextPath}/admin/queries">
+                <button type="submit" class="btn btn-outline-secondary btn-sm">Reset</button>
+            </form>
+        </div>
+        <p class="text-muted">
+            Repository calls of the last ${windowMinutes} to ${windowMinutes * 2} minutes, grouped by method and query.
+            Calls over ${thresholdMillis} ms are logged with their parameters.
+            Sort by
+            <a href="?sort=max" class="${sort == 'max' ? 'fw-bold' : ''}">slowest call</a> or
+            <a href="?sort=total" class="${sort == 'total' ? 'fw-bold' : ''}">total time</a>.
+        </p>
+        <table class="table table-sm table-striped align-middle">
+            <thead>
+            <tr>
+                <th>Repository call</th>
+                <th class="text-end">Calls</th>
+                <th class="text-end">Avg ms</th>
+                <th class="text-end">Max ms</th>
+                <th class="text-end">Total ms</th>
+                <th class="text-end">Slow</th>
+                <th>Last slow call</th>
+            </tr>
+            </thead>
+            <tbody>
+            <c:forEach items="${shapes}" var="shape">
+                <tr>
+                    <td>
+                        <strong><c:out value="${shape.operation}" /></strong>
+                        <c:if test="${shape.jpql != null}">
+                            <pre class="mb-0 small text-wrap"><c:out value="${shape.jpql}" /></pre>
+                        </c:if>
+                    </td>
+                    <td class="text-end">${shape.count}</td>
+                    <td class="text-end"><fmt:formatNumber value="${shape.averageMillis}" maxFractionDigits="2" /></td>
+                    <td class="text-end"><fmt:formatNumber value="${shape.maxMillis}" maxFractionDigits="2" /></td>
+                    <td class="text-end"><fmt:formatNumber value="${shape.totalMillis}" maxFractionDigits="0" /></td>
+                    <td class="text-end">${shape.slowCount}</td>
+                    <td class="small">
+                        <c:if test="${shape.lastSlowAt != null}">
+                            <c:out value="${shape.lastSlowAt}" />, ${shape.lastSlowRows} rows<br/>
+                            <c:out value="${shape.lastSlowParameters}" />
+                        </c:if>
+                    </td>
+                </tr>
+            </c:forEach>
+            <c:if test="${empty shapes}">
+                <tr><td colspan="7" class="text-muted">No repository calls recorded yet.</td></tr>
+            </c:if>
+            </tbody>
+        </table>
+    </div>
+</div>
+<c:import url="../components/footer.jsp" />
@@ -1,6 +1,7 @@
 
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@taglib prefix="c" uri="http://java.sun.com/jsp/jstl/core" %>
+<%@taglib prefix="fmt" uri="http://java.sun.com/jsp/jstl/fmt" %>
 <!doctype html>
 <html lang="en">
 <head>
@@ -42,6 +43,47 @@
 </div>
 
 
+<div class="mx-auto bg-gray-700 flex justify-center px-8 pb-8">
+    <div class="w-full bg-white rounded shadow-lg p-4 sm:w-3/4 md:w-1/2 lg:w-3/5">
+        <h2 class="text-xl font-semibold text-gray-800 mb-2">Comments</h2>
+        <c:choose>
+            <c:when test="${rating.ratingCount > 0}">
+                <p class="text-gray-700 mb-2">
+                    <span class="text-yellow-400 font-semibold"><fmt:formatNumber value="${rating.average}" maxFractionDigits="1"/>/10</span>
+                    from <c:out value="${rating.ratingCount}"/> reviews
+                </p>
+            </c:when>
+            <c:otherwise>
+                <p class="text-gray-500 mb-2">No reviews yet</p>
+            </c:otherwise>
+        </c:choose>
+        <c:if test="${not empty sessionScope.user}">
+            <form method="post" action="${pageContext.request.contextPath}/createComment" class="flex flex-row items-center mb-4">
+                <input type="hidden" name="idEvent" value="${event.id}"/>
+                <input type="text" name="text" required placeholder="Leave a comment"
+                       class="border border-gray-300 rounded-lg p-2 w-full mr-2"/>
+                <input type="number" name="rating" min="1" max="10" value="10" required
+                       class="border border-gray-300 rounded-lg p-2 w-20 mr-2"/>
+                <button type="submit" class="text-white bg-blue-700 hover:bg-blue-800 rounded-lg text-sm px-4 py-2">Send</button>
+            </form>
+        </c:if>
+        <c:forEach items="${comments}" var="comment">
+            <div class="border-b py-2">
+                <span class="font-semibold"><c:out value="${comment.user.firstName} ${comment.user.lastName}"/></span>
+                <span class="text-yellow-400 ml-2"><c:out value="${comment.rating}"/>/10</span>
+                <p class="text-gray-700"><c:out value="${comment.text}"/></p>
+            </div>
+        </c:forEach>
+        <c:if test="${not empty nextCursor}">
+            <c:url var="moreComments" value="/showEvent">
+                <c:param name="id" value="${event.id}"/>
+                <c:param name="cursor" value="${nextCursor}"/>
+            </c:url>
+            <a href="${moreComments}" class="text-blue-700">Older comments &raquo;</a>
+        </c:if>
+    </div>
+</div>
+
 <div id="modal" tabindex="-1" class="fixed top-1/2 left-1/2 right-0 z-50 hidden w-full p-4 overflow-x-hidden overflow-y-auto md:inset-0 h-[calc(80%-1rem)] max-h-full">
     <div class="relative w-full max-w-4xl max-h-full">
         <!-- Modal content -->
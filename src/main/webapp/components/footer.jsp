@@ -8,8 +8,8 @@
 <script src="https://ajax.googleapis.com/ajax/libs/jquery/3.6.0/jquery.min.js"></script>
 <script src="https://cdnjs.cloudflare.com/ajax/libs/parsley.js/2.9.2/parsley.min.js"></script>
 <script src="https://cdn.jsdelivr.net/npm/flatpickr"></script>
-<script src="js/FormEditEvent.js"></script>
-<script src="js/deleteEvent.js"></script>
+<script src="${assets['/js/FormEditEvent.js']}"></script>
+<script src="${assets['/js/deleteEvent.js']}"></script>
 </body>
 </html>
 
@@ -9,9 +9,9 @@
 <title>Sign Up Form by Colorlib</title>
 
 <!-- Font Icon -->
-	<link rel="stylesheet" href="<c:url value="/fonts/material-icon/css/material-design-iconic-font.min.css"/>">
+	<link rel="stylesheet" href="${assets['/fonts/material-icon/css/material-design-iconic-font.min.css']}">
 <!-- Main css -->
-<link rel="stylesheet" href="<c:url value="/css/style.css"/>">
+<link rel="stylesheet" href="${assets['/css/style.css']}">
 </head>
 <body>
 
@@ -23,7 +23,7 @@
 				<div class="signin-content">
 					<div class="signin-image">
 						<figure>
-							<img src="${pageContext.request.contextPath}/images/signin-image.jpg" alt="sing up image">
+							<img src="${assets['/images/signin-image.jpg']}" alt="sing up image">
 						</figure>
 						<a href="<c:url value='/registration.jsp' />" class="signup-image-link">Create an
 							account</a>
@@ -101,6 +101,6 @@
 
 	<!-- JS -->
 	<script src="${pageContext.request.contextPath}vendor/jquery/jquery.min.js"></script>
-	<script src="${pageContext.request.contextPath}/js/main.js"></script>
+	<script src="${assets['/js/main.js']}"></script>
 </body>
 </html>
\ No newline at end of file
@@ -69,7 +69,7 @@
             >
                 <img
                         class="w-full"
-                        src="images/card-top.jpg"
+                        src="${assets['/images/card-top.jpg']}"
                         alt="Sunset in the mountains"
                 />
                 <div class="px-6 py-4">
@@ -112,7 +112,7 @@
             >
                 <img
                         class="w-full"
-                        src="images/card-top.jpg"
+                        src="${assets['/images/card-top.jpg']}"
                         alt="Sunset in the mountains"
                 />
                 <div class="px-6 py-4">
@@ -155,7 +155,7 @@
             >
                 <img
                         class="w-full"
-                        src="images/card-top.jpg"
+                        src="${assets['/images/card-top.jpg']}"
                         alt="Sunset in the mountains"
                 />
                 <div class="px-6 py-4">
@@ -198,7 +198,7 @@
             >
                 <img
                         class="w-full"
-                        src="images/card-top.jpg"
+                        src="${assets['/images/card-top.jpg']}"
                         alt="Sunset in the mountains"
                 />
                 <div class="px-6 py-4">
@@ -241,7 +241,7 @@
             >
                 <img
                         class="w-full"
-                        src="images/card-top.jpg"
+                        src="${assets['/images/card-top.jpg']}"
                         alt="Sunset in the mountains"
                 />
                 <div class="px-6 py-4">
@@ -284,7 +284,7 @@
             >
                 <img
                         class="w-full"
-                        src="images/card-top.jpg"
+                        src="${assets['/images/card-top.jpg']}"
                         alt="Sunset in the mountains"
                 />
                 <div class="px-6 py-4">
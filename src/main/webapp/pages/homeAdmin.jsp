@@ -88,12 +88,11 @@
         </table>
     </div>
     <div class="pagination">
-        <a href="#">&laquo;</a>
-        <a href="#">1</a>
-        <a class="active" href="#">2</a>
-        <a href="#">3</a>
-        <a href="#">4</a>
-        <a href="#">5</a>
-        <a href="#">6</a>
-        <a href="#">&raquo;</a>
+        <a href="${pageContext.request.contextPath}/Dashboard">&laquo;</a>
+        <c:if test="${not empty nextCursor}">
+            <c:url var="nextPage" value="/Dashboard">
+                <c:param name="cursor" value="${nextCursor}"/>
+            </c:url>
+            <a href="${nextPage}">&raquo;</a>
+        </c:if>
     </div>
\ No newline at end of file
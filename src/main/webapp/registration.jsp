@@ -9,9 +9,9 @@
 <title>Sign Up Form by Colorlib</title>
 
 	<!-- Font Icon -->
-	<link rel="stylesheet" href="<c:url value="/fonts/material-icon/css/material-design-iconic-font.min.css"/>">
+	<link rel="stylesheet" href="${assets['/fonts/material-icon/css/material-design-iconic-font.min.css']}">
 	<!-- Main css -->
-	<link rel="stylesheet" href="<c:url value="/css/style.css"/>">
+	<link rel="stylesheet" href="${assets['/css/style.css']}">
 </head>
 <body>
 
@@ -77,7 +77,7 @@
 					</div>
 					<div class="signup-image">
 						<figure>
-							<img src="${pageContext.request.contextPath}/images/signup-image.jpg" alt="sing up image">
+							<img src="${assets['/images/signup-image.jpg']}" alt="sing up image">
 						</figure>
 						<a href="${pageContext.request.contextPath}/login.jsp" class="signup-image-link">I am already
 							member</a>
@@ -90,7 +90,7 @@
 	</div>
 	<!-- JS -->
 	<script src="${pageContext.request.contextPath}vendor/jquery/jquery.min.js"></script>
-	<script src="${pageContext.request.contextPath}/js/main.js"></script>
+	<script src="${assets['/js/main.js']}"></script>
 
 
 
@@ -0,0 +1,86 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionFilterTest {
+
+    private final CompressionFilter filter = new CompressionFilter();
+    private final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    private final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+    private final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+    CompressionFilterTest() throws IOException {
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip, deflate, br");
+        Mockito.when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+        Mockito.when(response.getContentType()).thenReturn("text/html;charset=UTF-8");
+        Mockito.when(response.getCharacterEncoding()).thenReturn("UTF-8");
+        Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                sent.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {}
+        });
+    }
+
+    @Test
+    @DisplayName("Test large text response is gzipped")
+    @Description("This test verifies that a page above the threshold is sent gzipped with its encoding and Vary headers and decompresses to what was written.")
+    void testLargeResponseIsGzipped() throws Exception {
+        String page = "<p>Jazz night é</p>\n".repeat(200);
+        FilterChain chain = (req, resp) -> resp.getWriter().write(page);
+
+        filter.doFilter(request, response, chain);
+
+        Mockito.verify(response).setHeader("Content-Encoding", "gzip");
+        Mockito.verify(response).addHeader("Vary", "Accept-Encoding");
+        assertTrue(sent.size() < page.length() / 10);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(sent.toByteArray()))) {
+            assertEquals(page, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test small or already encoded responses are sent as they are")
+    @Description("This test verifies that a body below the threshold goes out plain with its exact length, and that a body a servlet encoded itself is not compressed twice.")
+    void testSmallAndEncodedResponsesPassThrough() throws Exception {
+        filter.doFilter(request, response, (req, resp) -> resp.getWriter().write("short"));
+
+        assertEquals("short", sent.toString(StandardCharsets.UTF_8));
+        Mockito.verify(response).setContentLengthLong(5);
+
+        sent.reset();
+        byte[] gzipped = Gzip.compress("x".repeat(5000).getBytes(StandardCharsets.UTF_8));
+        filter.doFilter(request, response, (req, resp) -> {
+            ((HttpServletResponse) resp).setHeader("Content-Encoding", "gzip");
+            resp.getOutputStream().write(gzipped);
+        });
+
+        assertArrayEquals(gzipped, sent.toByteArray());
+        Mockito.verify(response, Mockito.never()).addHeader("Vary", "Accept-Encoding");
+    }
+}
@@ -0,0 +1,170 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CategoryRepositoryImpl;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCacheFilterTest {
+
+    private PageCacheFilter filter;
+    private AtomicInteger renders;
+    private FilterChain chain;
+
+    // what the client received for one request
+    private static class Exchange {
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        final StringWriter written = new StringWriter();
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+        Exchange(String path, Map<String, String[]> parameters) throws IOException {
+            Mockito.when(request.getMethod()).thenReturn("GET");
+            Mockito.when(request.getServletPath()).thenReturn(path);
+            Mockito.when(request.getParameterMap()).thenReturn(parameters);
+            Mockito.when(request.getDateHeader("If-Modified-Since")).thenReturn(-1L);
+            Mockito.when(response.getWriter()).thenReturn(new PrintWriter(written));
+            Mockito.when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+            Mockito.when(response.getContentType()).thenReturn("text/html;charset=UTF-8");
+            Mockito.when(response.getCharacterEncoding()).thenReturn("UTF-8");
+            Mockito.when(response.getHeader("Cache-Control")).thenReturn("no-cache");
+            Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    sent.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {}
+            });
+        }
+
+        String body() {
+            return written + sent.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        filter = new PageCacheFilter(new PageCache(100, 1024 * 1024));
+        renders = new AtomicInteger();
+        chain = (request, response) -> response.getWriter().write("page " + renders.incrementAndGet() + " é");
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test repeat views are served from memory until the catalog changes")
+    @Description("This test verifies that a second anonymous request for the same page and parameters in any order is answered from the cache, and that a committed write makes the next request render again.")
+    void testServedFromCacheUntilWrite() throws Exception {
+        Exchange first = new Exchange("/event", Map.of("search", new String[]{"1"}, "text", new String[]{"jazz"}));
+        filter.doFilter(first.request, first.response, chain);
+        Exchange second = new Exchange("/event", new TreeMap<>(Map.of("text", new String[]{"jazz"}, "search", new String[]{"1"})));
+        filter.doFilter(second.request, second.response, chain);
+
+        assertEquals(1, renders.get());
+        assertEquals("page 1 é", first.body());
+        assertEquals("page 1 é", second.body());
+        Mockito.verify(second.response).setContentLength("page 1 é".getBytes(StandardCharsets.UTF_8).length);
+
+        new CategoryRepositoryImpl().save(new Category("Page cache test"));
+        Exchange third = new Exchange("/event", Map.of("search", new String[]{"1"}, "text", new String[]{"jazz"}));
+        filter.doFilter(third.request, third.response, chain);
+
+        assertEquals(2, renders.get());
+        assertEquals("page 2 é", third.body());
+    }
+
+    @Test
+    @DisplayName("Test a revalidation with the current ETag gets a 304")
+    @Description("This test verifies that a conditional GET carrying the ETag of the current catalog version is answered with 304 without rendering, and one with an older ETag gets the page.")
+    void testConditionalGet() throws Exception {
+        Exchange first = new Exchange("/showEvent", Map.of("id", new String[]{"7"}));
+        filter.doFilter(first.request, first.response, chain);
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(first.response).setHeader(Mockito.eq("ETag"), etag.capture());
+
+        Exchange revalidation = new Exchange("/showEvent", Map.of("id", new String[]{"7"}));
+        Mockito.when(revalidation.request.getHeader("If-None-Match")).thenReturn(etag.getValue());
+        filter.doFilter(revalidation.request, revalidation.response, chain);
+
+        Mockito.verify(revalidation.response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals("", revalidation.body());
+
+        CatalogVersion.bump();
+        Exchange stale = new Exchange("/showEvent", Map.of("id", new String[]{"7"}));
+        Mockito.when(stale.request.getHeader("If-None-Match")).thenReturn(etag.getValue());
+        filter.doFilter(stale.request, stale.response, chain);
+
+        Mockito.verify(stale.response, Mockito.never()).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals("page 2 é", stale.body());
+    }
+
+    @Test
+    @DisplayName("Test signed-in users always get a freshly rendered page")
+    @Description("This test verifies that requests with a user in the session bypass the cache and get no validators, since their pages include the comment form and their pending comments.")
+    void testSignedInBypassesCache() throws Exception {
+        HttpSession session = Mockito.mock(HttpSession.class);
+        Mockito.when(session.getAttribute("user")).thenReturn(new Object());
+        for (int i = 0; i < 2; i++) {
+            Exchange exchange = new Exchange("/showEvent", Map.of("id", new String[]{"7"}));
+            Mockito.when(exchange.request.getSession(false)).thenReturn(session);
+            filter.doFilter(exchange.request, exchange.response, chain);
+            Mockito.verify(exchange.response, Mockito.never()).setHeader(Mockito.eq("ETag"), Mockito.anyString());
+        }
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Test the version only moves when the write commits")
+    @Description("This test verifies that a write rolled back leaves the catalog version as it was, so cached pages stay valid.")
+    void testVersionMovesOnCommitOnly() {
+        long before = CatalogVersion.current();
+        assertThrows(IllegalStateException.class, () -> EntityManagerUtil.runInTransaction(em -> {
+            em.persist(new Category("rolled back"));
+            CatalogVersion.bumpAfterCommit(em);
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(before, CatalogVersion.current());
+
+        EntityManagerUtil.runInTransaction(em -> {
+            em.persist(new Category("committed"));
+            CatalogVersion.bumpAfterCommit(em);
+            assertEquals(before, CatalogVersion.current());
+        });
+        assertEquals(before + 1, CatalogVersion.current());
+    }
+}
@@ -0,0 +1,112 @@
+package com.gathergrid.gathergridfeatures.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticAssetFilterTest {
+
+    private static final String CSS = ".card { margin: 0 auto; }\n".repeat(100);
+
+    private StaticAssets assets;
+    private StaticAssetFilter filter;
+    private FilterChain chain;
+
+    // what the client received for one request
+    private static class Exchange {
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        final HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+        final ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+        Exchange(String path, String acceptEncoding) throws IOException {
+            Mockito.when(request.getMethod()).thenReturn("GET");
+            Mockito.when(request.getServletPath()).thenReturn(path);
+            Mockito.when(request.getHeader("Accept-Encoding")).thenReturn(acceptEncoding);
+            Mockito.when(response.getOutputStream()).thenReturn(new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    sent.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {}
+            });
+        }
+    }
+
+    @BeforeEach
+    void setup() {
+        ServletContext context = Mockito.mock(ServletContext.class);
+        Mockito.when(context.getContextPath()).thenReturn("/app");
+        Mockito.when(context.getMimeType("/css/site.css")).thenReturn("text/css");
+        Mockito.when(context.getResourceAsStream("/css/site.css"))
+                .thenAnswer(invocation -> new ByteArrayInputStream(CSS.getBytes(StandardCharsets.UTF_8)));
+        assets = new StaticAssets(context);
+        filter = new StaticAssetFilter(assets);
+        chain = Mockito.mock(FilterChain.class);
+    }
+
+    @Test
+    @DisplayName("Test fingerprinted asset is served gzipped and immutable")
+    @Description("This test verifies that pages link to a URL carrying the content hash, and that this URL is answered from memory, gzipped, with a year-long immutable Cache-Control.")
+    void testFingerprintedAssetIsImmutable() throws Exception {
+        String url = assets.urls().get("/css/site.css");
+        assertTrue(url.matches("/app/css/site\\.[0-9a-f]{12}\\.css"), url);
+
+        Exchange exchange = new Exchange(url.substring("/app".length()), "gzip");
+        filter.doFilter(exchange.request, exchange.response, chain);
+
+        Mockito.verify(exchange.response).setHeader("Cache-Control", StaticAssetFilter.IMMUTABLE);
+        Mockito.verify(exchange.response).setHeader("Content-Encoding", "gzip");
+        Mockito.verify(exchange.response).setContentType("text/css");
+        Mockito.verify(exchange.response).setContentLength(exchange.sent.size());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(exchange.sent.toByteArray()))) {
+            assertEquals(CSS, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Mockito.verifyNoInteractions(chain);
+    }
+
+    @Test
+    @DisplayName("Test plain and stale asset URLs are revalidated")
+    @Description("This test verifies that the plain path and a replaced fingerprint must be revalidated, that a matching ETag gets a 304, and that unknown files are left to the container.")
+    void testPlainAndStaleUrlsAreRevalidated() throws Exception {
+        Exchange plain = new Exchange("/css/site.css", null);
+        filter.doFilter(plain.request, plain.response, chain);
+        Mockito.verify(plain.response).setHeader("Cache-Control", "no-cache");
+        Mockito.verify(plain.response, Mockito.never()).setHeader("Content-Encoding", "gzip");
+        assertEquals(CSS, plain.sent.toString(StandardCharsets.UTF_8));
+
+        Exchange stale = new Exchange("/css/site.000000000000.css", "gzip");
+        String etag = "W/\"" + assets.find("/css/site.css").hash + "\"";
+        Mockito.when(stale.request.getHeader("If-None-Match")).thenReturn(etag);
+        filter.doFilter(stale.request, stale.response, chain);
+        Mockito.verify(stale.response).setHeader("Cache-Control", "no-cache");
+        Mockito.verify(stale.response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        assertEquals(0, stale.sent.size());
+
+        Exchange missing = new Exchange("/css/missing.css", "gzip");
+        filter.doFilter(missing.request, missing.response, chain);
+        Mockito.verify(chain).doFilter(missing.request, missing.response);
+    }
+}
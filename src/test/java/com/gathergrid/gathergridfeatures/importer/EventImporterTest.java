@@ -0,0 +1,102 @@
+package com.gathergrid.gathergridfeatures.importer;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventImporterTest {
+
+    private static User organizer;
+
+    @BeforeAll
+    static void seed() {
+        organizer = new User("bulk", "importer", "bulk.importer@gmail.com", "password");
+        EntityManagerUtil.runInTransaction(em -> em.persist(organizer));
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test CSV import keeps valid rows and reports the others")
+    @Description("This test verifies that valid CSV rows are saved with their ticket tiers and category, including quoted fields spanning lines, while invalid rows are reported with their position and the ticket rules.")
+    void testCsvImport() {
+        String csv = "name,date,address,description,category,vip_price,vip_quantity,standard_price,standard_quantity\n"
+                + "Import jazz night,2030-06-01T20:00,Main street,\"Two sets, one \"\"encore\"\"\nand a late jam\",Import Jazz,120,10,40,100\n"
+                + "Import free gig,2030-06-02T20:00,Main street,,Import Jazz,0,10,,\n"
+                + "Import bad date,tomorrow,Main street,,Import Jazz,120,10,,\n"
+                + "Import blues night,2030-06-03T20:00,Dock road,,Import Jazz,,,25,50\n";
+
+        ImportReport report = new EventImporter(2).importEvents(new StringReader(csv), ImportFormat.CSV, organizer.getId());
+
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertNull(report.getAbortedBecause());
+        ImportReport.RowError free = report.getErrors().get(0);
+        assertEquals(2, free.getRecord());
+        assertEquals(4, free.getLine());
+        assertEquals("VIP: Price must be greater than zero", free.getMessage());
+        assertEquals(3, report.getErrors().get(1).getRecord());
+
+        Event jazz = EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT e FROM Event e JOIN FETCH e.tickets WHERE e.name = :name", Event.class)
+                .setParameter("name", "Import jazz night")
+                .getSingleResult();
+        assertEquals("Two sets, one \"encore\"\nand a late jam", jazz.getDescription());
+        assertEquals("Import Jazz", jazz.getCategory().getName());
+        assertEquals(organizer.getId(), jazz.getOrganizer().getId());
+        assertEquals(2, jazz.getTickets().size());
+        assertEquals(1L, EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT COUNT(c) FROM Category c WHERE c.name = 'Import Jazz'", Long.class)
+                .getSingleResult());
+    }
+
+    @Test
+    @DisplayName("Test JSON import stops at malformed JSON and keeps what came before")
+    @Description("This test verifies that events read before a syntax error are saved and the report says why the rest of the file was skipped.")
+    void testJsonImportStopsAtMalformedJson() {
+        String json = "[\n"
+                + "  {\"name\": \"Import opera gala\", \"date\": \"2030-07-01T19:30\", \"address\": \"Opera square\",\n"
+                + "   \"category\": \"Import Opera\", \"tickets\": [{\"type\": \"vip\", \"price\": 200, \"quantity\": 5}]},\n"
+                + "  {\"name\": \"Import opera matinee\", \"date\": \"2030-07-02T14:00\", \"category\": \"Import Opera\",\n"
+                + "   \"tickets\": [{\"type\": \"BALCONY\", \"price\": 30, \"quantity\": 5}]},\n"
+                + "  {\"name\": \"Import broken\", \"date\": \n";
+
+        ImportReport report = new EventImporter().importEvents(new StringReader(json), ImportFormat.JSON, organizer.getId());
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals("unknown ticket type BALCONY", report.getErrors().get(0).getMessage());
+        assertEquals(4, report.getErrors().get(0).getLine());
+        assertNotNull(report.getAbortedBecause());
+        List<Ticket> tickets = EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT t FROM Ticket t WHERE t.event.name = 'Import opera gala'", Ticket.class)
+                .getResultList();
+        assertEquals(1, tickets.size());
+        assertEquals(5, tickets.get(0).getQuantityAvailable());
+    }
+
+    @Test
+    @DisplayName("Test CSV header with unknown columns is refused")
+    @Description("This test verifies that a file whose header cannot be mapped is refused as a whole before anything is saved.")
+    void testUnknownColumnIsRefused() {
+        String csv = "name,date,address,category,balcony_price\nA,2030-01-01T10:00,x,y,10\n";
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventImporter().importEvents(new StringReader(csv), ImportFormat.CSV, organizer.getId()));
+    }
+}
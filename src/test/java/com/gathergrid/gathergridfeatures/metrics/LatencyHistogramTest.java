@@ -0,0 +1,48 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import jdk.jfr.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Test latencies land in the bucket bounding them")
+    @Description("This test verifies that a latency equal to a bound counts in that bucket, slower ones in the next, and anything past the last bound in the unbounded bucket.")
+    void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] bounds = LatencyHistogram.getBoundsNanos();
+
+        histogram.record(bounds[3]);
+        histogram.record(bounds[3] + 1);
+        histogram.record(TimeUnit.MINUTES.toNanos(5));
+
+        long[] counts = histogram.getCounts();
+        assertEquals(1, counts[3]);
+        assertEquals(1, counts[4]);
+        assertEquals(1, counts[bounds.length]);
+        assertEquals(3, histogram.getCount());
+        assertEquals(TimeUnit.MINUTES.toNanos(5), histogram.getMaxNanos());
+    }
+
+    @Test
+    @DisplayName("Test quantiles are estimated within one bucket")
+    @Description("This test verifies that a quantile is reported as the upper bound of its bucket, never below the true value and at most 41% above it.")
+    void testQuantile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        long p50 = histogram.getQuantileNanos(0.5);
+        long p99 = histogram.getQuantileNanos(0.99);
+
+        assertTrue(p50 >= TimeUnit.MILLISECONDS.toNanos(50) && p50 <= TimeUnit.MILLISECONDS.toNanos(50) * 1.42);
+        assertTrue(p99 >= TimeUnit.MILLISECONDS.toNanos(99) && p99 <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, new LatencyHistogram().getQuantileNanos(0.5));
+    }
+}
@@ -0,0 +1,40 @@
+package com.gathergrid.gathergridfeatures.metrics;
+
+import jdk.jfr.Description;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrometheusExporterTest {
+
+    @Test
+    @DisplayName("Test route metrics are exposed in Prometheus text format")
+    @Description("This test verifies that each route gets cumulative latency buckets, a count per status class, its in-flight gauge and response size, next to the Hibernate, pool and executor metrics.")
+    void testExport() {
+        RequestMetrics metrics = new RequestMetrics();
+        RouteMetrics event = metrics.route("/event");
+        event.begin();
+        event.end(TimeUnit.MILLISECONDS.toNanos(3), 200, 1200);
+        event.begin();
+        event.end(TimeUnit.SECONDS.toNanos(2), 503, 0);
+        metrics.route("/showEvent").begin();
+
+        String exposition = new PrometheusExporter(metrics).export();
+
+        assertTrue(exposition.contains("# TYPE gathergrid_http_request_duration_seconds histogram\n"));
+        assertTrue(exposition.contains("gathergrid_http_request_duration_seconds_bucket{route=\"/event\",le=\"0.0001\"} 0\n"));
+        assertTrue(exposition.contains("gathergrid_http_request_duration_seconds_bucket{route=\"/event\",le=\"+Inf\"} 2\n"));
+        assertTrue(exposition.contains("gathergrid_http_request_duration_seconds_count{route=\"/event\"} 2\n"));
+        assertTrue(exposition.contains("gathergrid_http_requests_total{route=\"/event\",status=\"2xx\"} 1\n"));
+        assertTrue(exposition.contains("gathergrid_http_requests_total{route=\"/event\",status=\"5xx\"} 1\n"));
+        assertTrue(exposition.contains("gathergrid_http_requests_in_flight{route=\"/showEvent\"} 1\n"));
+        assertTrue(exposition.contains("gathergrid_http_response_size_bytes{route=\"/event\"} 1200\n"));
+        assertTrue(exposition.contains("gathergrid_hibernate_statements_prepared_total "));
+        assertTrue(exposition.contains("gathergrid_db_pool_connections{state=\"active\"} "));
+        assertTrue(exposition.contains("gathergrid_executor_queue_depth{executor=\"database\"} 0\n"));
+        assertTrue(exposition.contains("gathergrid_executor_queue_depth{executor=\"sign_in\"} 0\n"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.gathergrid.gathergridfeatures.repository.interfacesImpl;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryRepositoryImplTest {
+
+    private CategoryRepositoryImpl categoryRepository;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        categoryRepository = new CategoryRepositoryImpl();
+        statistics = EntityManagerUtil.getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test category lists come from the query cache until a category is saved")
+    @Description("This test verifies that listing the categories again in a new EntityManager is a query cache hit without any SQL, and that saving a category invalidates the cached list.")
+    void testFindAllIsCachedUntilWrite() {
+        categoryRepository.findAll();
+        EntityManagerUtil.closeEntityManager();
+
+        statistics.clear();
+        List<Category> cached = categoryRepository.findAll();
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        EntityManagerUtil.closeEntityManager();
+
+        Category added = categoryRepository.save(new Category("cache test " + System.nanoTime()));
+        EntityManagerUtil.closeEntityManager();
+        statistics.clear();
+        List<Category> reloaded = categoryRepository.findAll();
+        assertEquals(0, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(cached.size() + 1, reloaded.size());
+        assertTrue(reloaded.stream().anyMatch(category -> category.getId() == added.getId()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.gathergrid.gathergridfeatures.search;
+
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.utils.EventCursor;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final LocalDateTime HORIZON = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setup() {
+        List<EventSummary> events = new ArrayList<>();
+        // ids deliberately out of date order, two events per day, category 1 or 2
+        for (int i = 0; i < 10; i++) {
+            events.add(event(100 - i, HORIZON.plusDays(i / 2), i % 2 == 0 ? 1L : 2L));
+        }
+        events.add(event(500, HORIZON.minusDays(1), 1L));
+        snapshot = CatalogSnapshot.of(HORIZON, events);
+    }
+
+    @Test
+    @DisplayName("Test snapshot keeps upcoming events in keyset order")
+    @Description("This test verifies that events before the horizon are dropped and pages follow (date, id) across the cursor.")
+    void testKeysetOrder() {
+        List<EventSummary> first = snapshot.find(HORIZON, null, null, null, 3);
+        List<EventSummary> second = snapshot.find(HORIZON, null, null,
+                new EventCursor(first.get(2).getDate(), first.get(2).getId()), 3);
+
+        assertEquals(10, snapshot.size());
+        assertEquals(List.of(99L, 100L, 97L), ids(first));
+        assertEquals(List.of(98L, 95L, 96L), ids(second));
+        assertFalse(snapshot.covers(HORIZON.minusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Test snapshot filters by date range and category")
+    @Description("This test verifies that the end date is inclusive and that only rows of the requested category come back.")
+    void testDateRangeAndCategory() {
+        List<EventSummary> rows = snapshot.find(HORIZON.plusDays(1), HORIZON.plusDays(3), 2L, null, 10);
+
+        assertEquals(List.of(97L, 95L, 93L), ids(rows));
+        assertEquals(List.of(94L), ids(snapshot.findByIds(List.of(94L, 99L, 500L), HORIZON.plusDays(3), null, 1L)));
+    }
+
+    @Test
+    @DisplayName("Test copy-on-write updates")
+    @Description("This test verifies that moving and removing events returns new snapshots and leaves the old one untouched.")
+    void testCopyOnWrite() {
+        CatalogSnapshot moved = snapshot.with(event(91, HORIZON, 1L));
+        CatalogSnapshot updated = moved.with(event(100, HORIZON.plusDays(9), 1L)).without(99);
+
+        assertEquals(List.of(99L, 100L, 97L), ids(snapshot.find(HORIZON, null, null, null, 3)));
+        assertEquals(List.of(91L, 99L, 100L), ids(moved.find(HORIZON, null, null, null, 3)));
+        assertEquals(9, updated.size());
+        assertEquals(List.of(91L, 97L), ids(updated.find(HORIZON, null, null, null, 2)));
+        assertEquals(100L, updated.find(HORIZON.plusDays(9), null, null, null, 1).get(0).getId());
+        assertEquals(8, updated.with(event(91, HORIZON.minusDays(2), 1L)).size());
+    }
+
+    @Test
+    @DisplayName("Test a batch of updates matches applying them one by one")
+    @Description("This test verifies that withAll adds, moves, removes and replaces events exactly as successive calls to with do, the last update of an id winning.")
+    void testBatchMatchesSingleUpdates() {
+        List<EventSummary> batch = List.of(
+                event(91, HORIZON, 1L),
+                event(7, HORIZON.plusDays(2), 2L),
+                event(100, HORIZON.plusDays(9), 1L),
+                event(96, HORIZON.minusDays(3), 2L),
+                event(7, HORIZON.plusDays(1), 1L),
+                event(3, HORIZON.plusDays(20), null));
+        CatalogSnapshot oneByOne = snapshot;
+        for (EventSummary event : batch) {
+            oneByOne = oneByOne.with(event);
+        }
+        CatalogSnapshot batched = snapshot.withAll(batch);
+
+        assertEquals(oneByOne.size(), batched.size());
+        assertEquals(ids(oneByOne.find(HORIZON, null, null, null, 20)), ids(batched.find(HORIZON, null, null, null, 20)));
+        assertEquals(List.of(91L, 7L, 98L), ids(batched.find(HORIZON, null, 1L, null, 3)));
+        assertEquals(List.of(3L, 7L, 100L), ids(batched.findByIds(List.of(3L, 7L, 96L, 100L), HORIZON, null, null)).stream()
+                .sorted().collect(Collectors.toList()));
+        assertSame(snapshot, snapshot.withAll(List.of(event(600, HORIZON.minusDays(1), 1L))));
+    }
+
+    private static EventSummary event(long id, LocalDateTime date, Long categoryId) {
+        return new EventSummary(id, "event " + id, date, "address", "description", categoryId, "category " + categoryId);
+    }
+
+    private static List<Long> ids(List<EventSummary> events) {
+        return events.stream().map(EventSummary::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.gathergrid.gathergridfeatures.search;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.utils.CatalogVersion;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventIndexingTest {
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test events reach the index only when the outer transaction commits")
+    @Description("This test verifies that an event saved inside a service's transaction is indexed and moves the catalog version once that transaction commits, leaves no trace when it rolls back, and is dropped again when deleted.")
+    void testIndexFollowsOuterCommit() {
+        EventRepositoryImpl repository = new EventRepositoryImpl();
+        long version = CatalogVersion.current();
+
+        assertThrows(IllegalStateException.class, () -> EntityManagerUtil.runInTransaction(em -> {
+            repository.save(new Event("Zanzibar rollback gala", LocalDateTime.now().plusDays(5), "Harbour", "never saved"));
+            throw new IllegalStateException("the service fails after saving");
+        }));
+
+        assertTrue(EventSearchIndex.getInstance().search("zanzibar").isEmpty());
+        assertEquals(version, CatalogVersion.current());
+
+        Event kept = EntityManagerUtil.executeInTransaction(em -> {
+            Event event = repository.save(new Event("Zanzibar commit gala", LocalDateTime.now().plusDays(5), "Harbour", "saved"));
+            assertTrue(EventSearchIndex.getInstance().search("zanzibar").isEmpty());
+            return event;
+        });
+
+        assertEquals(List.of(kept.getId()), EventSearchIndex.getInstance().search("zanzibar"));
+        assertTrue(CatalogVersion.current() > version);
+
+        repository.delete(kept.getId());
+        assertTrue(EventSearchIndex.getInstance().search("zanzibar").isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+package com.gathergrid.gathergridfeatures.search;
+
+import jdk.jfr.Description;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private EventSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new EventSearchIndex();
+        index.index(1L, "Jazz Night", "Casablanca", "Live music by the sea", NOW.plusDays(1), 1L);
+        index.index(2L, "Tech Meetup", "Rabat", "Talks about jazz and Java", NOW.plusDays(2), 2L);
+        index.index(3L, "Café Concert", "Marrakech", "Acoustic jazz evening", NOW.plusDays(3), 1L);
+    }
+
+    @Test
+    @DisplayName("Test search ranks name matches first")
+    @Description("This test verifies that an event whose name contains the word ranks above events that only mention it in the description.")
+    void testNameMatchRanksFirst() {
+        List<Long> ids = index.search("jazz");
+
+        assertEquals(3, ids.size());
+        assertEquals(1L, ids.get(0));
+    }
+
+    @Test
+    @DisplayName("Test search matches prefixes and ignores case and accents")
+    @Description("This test verifies that partial, upper-case and unaccented words still find the event, and that every word must match.")
+    void testPrefixCaseAndAccents() {
+        assertEquals(List.of(3L), index.search("CAFE conc"));
+        assertEquals(List.of(2L), index.search("jav"));
+        assertTrue(index.search("jazz rabat casablanca").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test index follows updates and deletes")
+    @Description("This test verifies that re-indexing an event drops its old words and that removed events are no longer returned.")
+    void testUpdateAndRemove() {
+        index.index(1L, "Blues Night", "Casablanca", "Live music by the sea", NOW.plusDays(1), 1L);
+        index.remove(3L);
+
+        assertEquals(List.of(2L), index.search("jazz"));
+        assertEquals(List.of(1L), index.search("blues"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Test filters apply before the result cap")
+    @Description("This test verifies that upcoming matches ranked below more than the maximum number of past matches are still found, and that the category filter applies too.")
+    void testFiltersBeforeCap() {
+        for (long id = 100; id < 100 + EventSearchIndex.MAX_RESULTS + 500; id++) {
+            index.index(id, "Jazz Jazz Festival " + id, "Casablanca", "Jazz all day", NOW.minusDays(id), 1L);
+        }
+
+        assertEquals(EventSearchIndex.MAX_RESULTS, index.search("jazz").size());
+        assertFalse(index.search("jazz").contains(2L));
+        assertEquals(List.of(1L, 2L, 3L), index.search("jazz", NOW, null, null));
+        assertEquals(List.of(1L, 3L), index.search("jazz", NOW, NOW.plusDays(3), 1L));
+        assertEquals(List.of(2L), index.search("jazz", NOW.plusDays(2), null, 2L));
+    }
+}
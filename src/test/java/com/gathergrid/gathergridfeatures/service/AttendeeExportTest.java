@@ -0,0 +1,91 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Reservation;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.dto.AttendeeRow;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.utils.CsvWriter;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttendeeExportTest {
+
+    private static Event event;
+    private static User attendee;
+
+    @BeforeAll
+    static void seed() {
+        User organizer = new User("export", "organizer", "export.organizer@gmail.com", "password");
+        attendee = new User("Jane, \"JJ\"", "=cmd", "export.attendee@gmail.com", "password");
+        event = new Event("export event", LocalDateTime.now().plusDays(3), "address", "description");
+        Event other = new Event("other event", LocalDateTime.now().plusDays(4), "address", "description");
+        EntityManagerUtil.runInTransaction(em -> {
+            em.persist(organizer);
+            em.persist(attendee);
+            event.setOrganizer(organizer);
+            event.addTicket(new Ticket(100, 500, TicketType.VIP));
+            event.addTicket(new Ticket(20, 500, TicketType.STANDARD));
+            em.persist(event);
+            other.setOrganizer(organizer);
+            other.addTicket(new Ticket(10, 10, TicketType.STANDARD));
+            em.persist(other);
+            for (int i = 0; i < 300; i++) {
+                em.persist(new Reservation(LocalDateTime.now(), attendee, event.getTickets().get(i % 2)));
+            }
+            em.persist(new Reservation(LocalDateTime.now(), attendee, other.getTickets().get(0)));
+        });
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test attendees are streamed in booking order without managed entities")
+    @Description("This test verifies that the export reads only the event's reservations, ordered by id, as plain rows that leave the persistence context empty.")
+    void testStreamAttendees() {
+        long previous = -1;
+        int count = 0;
+        try (Stream<AttendeeRow> rows = new ReservationService().streamAttendees(event.getId())) {
+            Iterator<AttendeeRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AttendeeRow row = iterator.next();
+                assertTrue(row.getReservationId() > previous);
+                assertEquals("export.attendee@gmail.com", row.getEmail());
+                previous = row.getReservationId();
+                count++;
+            }
+        }
+        assertEquals(300, count);
+        assertEquals(0, EntityManagerUtil.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Test CSV fields are quoted and guarded against formulas")
+    @Description("This test verifies that fields with commas or quotes are quoted, quotes are doubled and text starting like a formula is neutralised while negative numbers are kept.")
+    void testCsvEscaping() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out);
+
+        csv.row(attendee.getFirstName(), attendee.getLastName(), -12.5, null, TicketType.VIP);
+
+        assertEquals("\"Jane, \"\"JJ\"\"\",'=cmd,-12.5,,VIP\r\n", out.toString());
+    }
+}
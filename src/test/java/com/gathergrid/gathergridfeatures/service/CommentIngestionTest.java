@@ -0,0 +1,92 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentIngestionTest {
+
+    private User user;
+    private Event event;
+    private CommentRepositryImpl commentRepository;
+
+    @BeforeEach
+    void setup() {
+        user = new User("ingestion", "user", "ingestion." + System.nanoTime() + "@gmail.com", "password");
+        EntityManagerUtil.runInTransaction(em -> em.persist(user));
+        event = new EventRepositoryImpl().save(new Event("busy", LocalDateTime.now().plusDays(1), "address", "description"));
+        EntityManagerUtil.closeEntityManager();
+        commentRepository = new CommentRepositryImpl();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test burst of comments is written in batches")
+    @Description("This test verifies that every queued comment is committed and that a burst is saved in far fewer transactions than comments.")
+    void testBurstIsGroupCommitted() throws Exception {
+        CommentIngestion ingestion = new CommentIngestion(commentRepository, 1000, 50, 50);
+        Statistics statistics = EntityManagerUtil.getStatistics();
+        statistics.clear();
+        ingestion.start();
+
+        List<CompletableFuture<Comment>> commits = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            commits.add(ingestion.submit(comment("comment " + i)));
+        }
+        CompletableFuture.allOf(commits.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        ingestion.stop();
+
+        commits.forEach(commit -> assertTrue(commit.join().getId() > 0));
+        assertEquals(200, commentRepository.show(event.getId()).size());
+        assertTrue(statistics.getTransactionCount() < 20);
+    }
+
+    @Test
+    @DisplayName("Test full queue refuses comments")
+    @Description("This test verifies that a full queue rejects new comments immediately and that stop still writes the queued ones.")
+    void testFullQueueRejects() {
+        CommentIngestion ingestion = new CommentIngestion(commentRepository, 2, 10, 10);
+        ingestion.start();
+        ingestion.stop();
+        // stopped: saved on the calling thread
+        assertTrue(ingestion.submit(comment("direct")).isDone());
+
+        CommentIngestion full = new CommentIngestion(commentRepository, 1, 10, 10);
+        full.start();
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                full.submit(comment("burst " + i));
+            }
+        });
+        full.stop();
+        assertEquals(0, full.getQueueDepth());
+    }
+
+    private Comment comment(String text) {
+        Comment comment = new Comment(text, 7);
+        comment.setEvent(event);
+        comment.setUser(user);
+        return comment;
+    }
+}
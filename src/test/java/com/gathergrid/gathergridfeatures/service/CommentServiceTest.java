@@ -128,6 +128,18 @@ class CommentServiceTest {
         assertEquals(comment, result);
     }
 
+    @Test
+    @DisplayName("Test submitted comment is validated before queueing")
+    @Description("This test verifies that an invalid comment is rejected on the calling thread and never reaches the repository.")
+    void testSubmitCommentValidatesBeforeQueueing(){
+        Comment comment = new Comment("<script>", 5);
+        comment.setEvent(new Event("name",LocalDateTime.now(),"address", "description"));
+        comment.setUser(new User("firstname","lastname","yns@gmail.com","password"));
+
+        assertThrows(IllegalArgumentException.class, () -> commentService.submitComment(comment));
+        Mockito.verifyNoInteractions(commentRepository);
+    }
+
     @Test
     @DisplayName("Test if event exists when getting its comments")
     @Description("This test verifies that an exception is thrown when trying to retrieve comments for a non-existing event.")
@@ -0,0 +1,97 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Reservation;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.dto.EventSummary;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import com.gathergrid.gathergridfeatures.utils.Page;
+import jdk.jfr.Description;
+import org.hibernate.Hibernate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventListingQueryCountTest {
+
+    private static User organizer;
+    private static EventService eventService;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void seed() {
+        organizer = new User("query", "count", "query.count@gmail.com", "password");
+        EntityManagerUtil.runInTransaction(em -> {
+            Category category = new Category("Music");
+            em.persist(category);
+            em.persist(organizer);
+            for (int i = 0; i < 25; i++) {
+                Event event = new Event("event " + i, LocalDateTime.now().plusDays(i + 1), "address", "description");
+                event.setCategory(category);
+                event.setOrganizer(organizer);
+                event.addTicket(new Ticket(100, 10, TicketType.VIP));
+                event.addTicket(new Ticket(50, 10, TicketType.STANDARD));
+                em.persist(event);
+                for (Ticket ticket : event.getTickets()) {
+                    for (int r = 0; r < 3; r++) {
+                        em.persist(new Reservation(LocalDateTime.now(), organizer, ticket));
+                    }
+                }
+            }
+        });
+        EntityManagerUtil.closeEntityManager();
+        eventService = new EventService();
+        statistics = EntityManagerUtil.getStatistics();
+    }
+
+    @BeforeEach
+    void setup() {
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test event listing page is a single query")
+    @Description("This test verifies that a page of the /event listing, category names included, is loaded with one SQL statement.")
+    void testEventListingIsSingleQuery() {
+        Page<EventSummary> page = eventService.filterEvents("", "", "", "", null);
+
+        assertEquals(EventService.PAGE_SIZE, page.getItems().size());
+        assertTrue(page.hasNext());
+        page.getItems().forEach(event -> assertEquals("Music", event.getCategoryName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Test organizer dashboard page needs two queries")
+    @Description("This test verifies that the dashboard loads events, categories and tickets in two statements and never loads reservations.")
+    void testDashboardDoesNotLoadPerRow() {
+        Page<Event> page = eventService.fetchAllEventOfUser(organizer.getId(), null);
+
+        int totalQuantity = 0;
+        for (Event event : page.getItems()) {
+            assertNotNull(event.getCategory().getName());
+            for (Ticket ticket : event.getTickets()) {
+                totalQuantity += ticket.getQuantityAvailable();
+                assertFalse(Hibernate.isInitialized(ticket.getReservations()));
+            }
+        }
+
+        assertEquals(EventService.PAGE_SIZE * 20, totalQuantity);
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,133 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.EventRating;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.CommentRepositryImpl;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.EventRepositoryImpl;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRatingTest {
+
+    private User user;
+    private Event event;
+    private CommentService commentService;
+
+    @BeforeEach
+    void setup() {
+        user = new User("rating", "user", "rating." + System.nanoTime() + "@gmail.com", "password");
+        EntityManagerUtil.runInTransaction(em -> em.persist(user));
+        EventService eventService = new EventService();
+        event = new EventRepositoryImpl().save(new Event("rated", LocalDateTime.now().plusDays(3), "address", "description"));
+        commentService = new CommentService(new CommentRepositryImpl(), eventService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test rating follows comment create, update and delete")
+    @Description("This test verifies that the event's count, average and histogram change with every comment write.")
+    void testRatingFollowsCommentWrites() throws Exception {
+        Comment first = commentService.createComment(comment(8));
+        commentService.createComment(comment(4));
+        first.setRating(10);
+        commentService.updateComment(first);
+        EntityManagerUtil.closeEntityManager();
+
+        EventRating rating = commentService.getRating(event.getId());
+        assertEquals(2, rating.getRatingCount());
+        assertEquals(7.0, rating.getAverage());
+        assertEquals(1, rating.getHistogram()[3]);
+        assertEquals(0, rating.getHistogram()[7]);
+        assertEquals(1, rating.getHistogram()[9]);
+
+        commentService.deleteComment(first.getId(), user.getId());
+        EntityManagerUtil.closeEntityManager();
+
+        Map<Long, EventRating> ratings = commentService.getRatings(List.of(event.getId()));
+        assertEquals(1, ratings.get(event.getId()).getRatingCount());
+        assertEquals(4.0, ratings.get(event.getId()).getAverage());
+    }
+
+    @Test
+    @DisplayName("Test concurrent comments are all counted")
+    @Description("This test verifies that comments saved from several threads at once never lose an update of the rating.")
+    void testConcurrentCommentsAreCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int rating = i % 10 + 1;
+            futures.add(executor.submit(() -> {
+                try {
+                    commentService.createComment(comment(rating));
+                } finally {
+                    EntityManagerUtil.closeEntityManager();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        EntityManagerUtil.closeEntityManager();
+
+        EventRating rating = commentService.getRating(event.getId());
+        assertEquals(40, rating.getRatingCount());
+        assertEquals(5.5, rating.getAverage());
+    }
+
+    @Test
+    @DisplayName("Test first comments racing on an event without a rating row all count")
+    @Description("This test verifies that when several first comments arrive at once for an event that has no rating row yet, the row is created once and no comment fails.")
+    void testConcurrentFirstCommentsCreateTheRowOnce() throws Exception {
+        event = new Event("unrated", LocalDateTime.now().plusDays(3), "address", "description");
+        EntityManagerUtil.runInTransaction(em -> em.persist(event));
+        EntityManagerUtil.closeEntityManager();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    commentService.createComment(comment(6));
+                } finally {
+                    EntityManagerUtil.closeEntityManager();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        EntityManagerUtil.closeEntityManager();
+
+        EventRating rating = commentService.getRating(event.getId());
+        assertEquals(8, rating.getRatingCount());
+        assertEquals(6.0, rating.getAverage());
+    }
+
+    private Comment comment(int rating) {
+        Comment comment = new Comment("nice event", rating);
+        comment.setEvent(event);
+        comment.setUser(user);
+        return comment;
+    }
+}
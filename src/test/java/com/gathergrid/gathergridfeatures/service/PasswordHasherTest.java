@@ -0,0 +1,74 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test hash and verify on the hashing pool")
+    @Description("This test verifies that a hashed password checks out, a wrong one does not, and the configured cost is used.")
+    void testHashAndVerify() {
+        hasher = new PasswordHasher(1, 4, 5, 5000);
+
+        String hashed = hasher.hash("secret");
+
+        assertTrue(hashed.startsWith("$2a$05$"));
+        assertTrue(hasher.verify("secret", hashed));
+        assertFalse(hasher.verify("wrong", hashed));
+    }
+
+    @Test
+    @DisplayName("Test outdated hashes need a rehash")
+    @Description("This test verifies that only hashes made with a lower cost than the current one are reported as outdated.")
+    void testNeedsRehash() {
+        hasher = new PasswordHasher(1, 4, 6, 5000);
+
+        assertTrue(hasher.needsRehash(BCrypt.hashpw("secret", BCrypt.gensalt(5))));
+        assertFalse(hasher.needsRehash(BCrypt.hashpw("secret", BCrypt.gensalt(6))));
+    }
+
+    @Test
+    @DisplayName("Test saturated pool rejects immediately")
+    @Description("This test verifies that once the single worker and its queue are busy, further hashes fail fast with IllegalStateException.")
+    void testSaturatedPoolRejects() {
+        hasher = new PasswordHasher(1, 1, 12, 30000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            hashes.add(CompletableFuture.supplyAsync(() -> hasher.hash("secret"), callers));
+        }
+        long rejected = hashes.stream().filter(hash -> {
+            try {
+                hash.join();
+                return false;
+            } catch (CompletionException e) {
+                return e.getCause() instanceof IllegalStateException;
+            }
+        }).count();
+
+        callers.shutdown();
+
+        assertTrue(rejected >= 1);
+    }
+}
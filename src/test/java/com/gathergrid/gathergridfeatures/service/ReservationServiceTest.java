@@ -0,0 +1,61 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Reservation;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.repository.TicketRepository;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.ReservationRepository;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jakarta.persistence.EntityManager;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationServiceTest {
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test a reservation of many seats leaves the caller's entities managed")
+    @Description("This test verifies that batch-inserting more reservations than one JDBC batch inside the caller's transaction detaches only the reservations, not the user and ticket the caller loaded.")
+    void testLargeReservationKeepsCallerEntitiesManaged() {
+        User buyer = new User("batch", "buyer", "batch.buyer." + System.nanoTime() + "@gmail.com", "password");
+        Event event = new Event("batch event", LocalDateTime.now().plusDays(3), "address", "description");
+        EntityManagerUtil.runInTransaction(em -> {
+            em.persist(buyer);
+            event.addTicket(new Ticket(50, 500, TicketType.STANDARD));
+            em.persist(event);
+        });
+        EntityManagerUtil.closeEntityManager();
+        ReservationService service = new ReservationService(new ReservationRepository(), new TicketInventory(new TicketRepository(), 60_000));
+        int seats = EntityManagerUtil.getBatchSize() * 2 + 10;
+
+        EntityManagerUtil.runInTransaction(em -> {
+            User user = em.find(User.class, buyer.getId());
+            Ticket ticket = em.find(Ticket.class, event.getTickets().get(0).getId());
+
+            List<Reservation> reservations = service.reserve(user, Map.of(ticket, seats));
+
+            assertTrue(em.contains(user));
+            assertTrue(em.contains(ticket));
+            assertFalse(em.contains(reservations.get(0)));
+            assertEquals(seats, reservations.size());
+        });
+        EntityManager em = EntityManagerUtil.getEntityManager();
+        assertEquals((long) seats, em.createQuery("SELECT COUNT(r) FROM Reservation r WHERE r.user.id = :id", Long.class)
+                .setParameter("id", buyer.getId())
+                .getSingleResult());
+    }
+}
@@ -0,0 +1,178 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import com.gathergrid.gathergridfeatures.repository.TicketRepository;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.ReservationRepository;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketInventoryTest {
+
+    private static final int SEATS = 1000;
+    private static User buyer;
+    private static Ticket ticket;
+
+    @BeforeAll
+    static void seed() {
+        buyer = new User("inventory", "buyer", "inventory.buyer@gmail.com", "password");
+        Event event = new Event("inventory event", LocalDateTime.now().plusDays(3), "address", "description");
+        EntityManagerUtil.runInTransaction(em -> {
+            em.persist(buyer);
+            event.addTicket(new Ticket(50, SEATS, TicketType.STANDARD));
+            em.persist(event);
+        });
+        ticket = event.getTickets().get(0);
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test stock reloads exactly after flushes racing reservations")
+    @Description("This test verifies that when flushes run while reservations are being made, the stock rebuilt from the database without a final flush still counts every seat exactly once.")
+    void testReloadAfterConcurrentFlushes() throws Exception {
+        TicketInventory inventory = new TicketInventory(new TicketRepository(), 60_000);
+        ReservationService service = new ReservationService(new ReservationRepository(), inventory);
+        int buyers = 4;
+        int reservationsEach = 60;
+        ExecutorService threads = Executors.newFixedThreadPool(buyers + 1);
+        AtomicBoolean selling = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = threads.submit(() -> {
+                try {
+                    while (selling.get()) {
+                        inventory.flush();
+                    }
+                } finally {
+                    EntityManagerUtil.closeEntityManager();
+                }
+            });
+            List<Future<?>> sales = new ArrayList<>();
+            for (int b = 0; b < buyers; b++) {
+                sales.add(threads.submit(() -> {
+                    try {
+                        for (int i = 0; i < reservationsEach; i++) {
+                            service.reserve(buyer, Map.of(ticket, 2));
+                        }
+                    } finally {
+                        EntityManagerUtil.closeEntityManager();
+                    }
+                }));
+            }
+            for (Future<?> sale : sales) {
+                sale.get();
+            }
+            selling.set(false);
+            flusher.get();
+        } finally {
+            threads.shutdown();
+        }
+        int sold = buyers * reservationsEach * 2;
+        assertEquals(SEATS - sold, inventory.getAvailable(ticket.getId()));
+
+        // a new inventory stands for a restart: what the last flush did not write is rebuilt from the reservations
+        assertEquals(SEATS - sold, new TicketInventory(new TicketRepository(), 60_000).getAvailable(ticket.getId()));
+    }
+
+    @Test
+    @DisplayName("Test reservations wait for a ticket update instead of selling the old stock")
+    @Description("This test verifies that a reservation reloading a ticket while its organizer lowers the quantity waits for the update and sells from the new quantity, in memory and in the database.")
+    void testReservationDuringTicketUpdate() throws Exception {
+        Event event = new Event("updated event", LocalDateTime.now().plusDays(3), "address", "description");
+        EntityManagerUtil.runInTransaction(em -> {
+            event.addTicket(new Ticket(50, 10, TicketType.VIP));
+            em.persist(event);
+        });
+        long ticketId = event.getTickets().get(0).getId();
+        EntityManagerUtil.closeEntityManager();
+
+        TicketInventory inventory = new TicketInventory(new TicketRepository(), 60_000);
+        ReservationService reservations = new ReservationService(new ReservationRepository(), inventory);
+        reservations.reserve(buyer, Map.of(event.getTickets().get(0), 1));
+        CountDownLatch evicted = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        TicketService tickets = new TicketService(new TicketRepository() {
+            @Override
+            public void update(Ticket ticket) {
+                // the inventory has let go of the ticket, the new quantity is not written yet
+                evicted.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.update(ticket);
+            }
+        }, inventory);
+        Ticket lowered = new TicketRepository().find(ticketId);
+        EntityManagerUtil.closeEntityManager();
+        lowered.setQuantityAvailable(3);
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> update = threads.submit(() -> {
+                try {
+                    tickets.updateTicket(lowered);
+                } finally {
+                    EntityManagerUtil.closeEntityManager();
+                }
+                return null;
+            });
+            assertTrue(evicted.await(5, TimeUnit.SECONDS));
+            Future<?> sale = threads.submit(() -> {
+                try {
+                    reservations.reserve(buyer, Map.of(lowered, 2));
+                } finally {
+                    EntityManagerUtil.closeEntityManager();
+                }
+            });
+            Thread.sleep(200);
+            assertFalse(sale.isDone(), "the reservation must wait for the update to commit");
+            proceed.countDown();
+            update.get();
+            sale.get();
+        } finally {
+            threads.shutdown();
+        }
+
+        assertEquals(1, inventory.getAvailable(ticketId));
+        assertEquals(1, new TicketInventory(new TicketRepository(), 60_000).getAvailable(ticketId));
+        inventory.flush();
+        EntityManagerUtil.closeEntityManager();
+        assertEquals(1, new TicketRepository().find(ticketId).getQuantityAvailable());
+    }
+
+    @Test
+    @DisplayName("Test unknown tickets are sold out and not kept")
+    @Description("This test verifies that reserving a ticket id that does not exist fails without adding it to the inventory.")
+    void testUnknownTicketIsNotCached() {
+        TicketInventory inventory = new TicketInventory(new TicketRepository(), 60_000);
+
+        assertNull(inventory.tryReserve(Map.of(-1L, 1)));
+        assertEquals(0, inventory.getAvailable(-1L));
+        assertEquals(0, inventory.size());
+    }
+}
@@ -0,0 +1,117 @@
+package com.gathergrid.gathergridfeatures.service;
+
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.repository.interfacesImpl.UserRepository;
+import com.gathergrid.gathergridfeatures.utils.EntityManagerUtil;
+import jdk.jfr.Description;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserServiceTest {
+
+    private KnownEmails knownEmails;
+    private UserService userService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        knownEmails = new KnownEmails();
+        knownEmails.load(0, Stream.empty());
+        userService = new UserService(new UserRepository<>(), knownEmails, PasswordHasher.getInstance());
+        statistics = EntityManagerUtil.getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+    }
+
+    @Test
+    @DisplayName("Test registering a new email skips the lookup")
+    @Description("This test verifies that an email the filter rules out is registered with the insert alone, and a second registration is refused.")
+    void testNewEmailSkipsLookup() {
+        String email = "new." + System.nanoTime() + "@gmail.com";
+        statistics.clear();
+
+        assertTrue(userService.save(new User("first", "last", email, "hash")).isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        EntityManagerUtil.closeEntityManager();
+        assertTrue(userService.save(new User("first", "last", email, "hash")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test unique constraint settles emails the filter missed")
+    @Description("This test verifies that an email registered behind the filter's back is still refused by the database constraint.")
+    void testUniqueConstraintIsFinal() {
+        String email = "race." + System.nanoTime() + "@gmail.com";
+        EntityManagerUtil.runInTransaction(em -> em.persist(new User("first", "last", email, "hash")));
+        EntityManagerUtil.closeEntityManager();
+
+        assertFalse(knownEmails.mightExist(email));
+        assertTrue(userService.save(new User("other", "user", email, "hash")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test users the filter does not know can sign in")
+    @Description("This test verifies that a user registered elsewhere, such as on another node, signs in although this node's filter has never seen the email.")
+    void testSignInIgnoresFilter() {
+        String email = "elsewhere." + System.nanoTime() + "@gmail.com";
+        EntityManagerUtil.runInTransaction(em -> em.persist(new User("first", "last", email, PasswordHasher.getInstance().hash("secret"))));
+        EntityManagerUtil.closeEntityManager();
+        User credentials = new User();
+        credentials.setEmail(email);
+        credentials.setPassword("secret");
+
+        assertFalse(knownEmails.mightExist(email));
+        assertTrue(userService.CheckEmail(credentials).isPresent());
+    }
+
+    @Test
+    @DisplayName("Test a saturated hashing pool does not fail a checked sign-in")
+    @Description("This test verifies that when rehashing an outdated password is rejected by the hashing pool, the user is still signed in and keeps the old hash.")
+    void testRehashIsBestEffort() {
+        String email = "rehash." + System.nanoTime() + "@gmail.com";
+        EntityManagerUtil.runInTransaction(em -> em.persist(new User("first", "last", email, "outdated-hash")));
+        EntityManagerUtil.closeEntityManager();
+        PasswordHasher saturated = Mockito.mock(PasswordHasher.class);
+        Mockito.when(saturated.verify("secret", "outdated-hash")).thenReturn(true);
+        Mockito.when(saturated.needsRehash("outdated-hash")).thenReturn(true);
+        Mockito.when(saturated.hash("secret")).thenThrow(new IllegalStateException("Too many sign-ins right now, please try again in a moment"));
+        User credentials = new User();
+        credentials.setEmail(email);
+        credentials.setPassword("secret");
+
+        assertTrue(new UserService(new UserRepository<>(), knownEmails, saturated).CheckEmail(credentials).isPresent());
+        EntityManagerUtil.closeEntityManager();
+        assertEquals("outdated-hash", EntityManagerUtil.getEntityManager()
+                .createQuery("SELECT u.password FROM User u WHERE u.email = :email", String.class)
+                .setParameter("email", email)
+                .getSingleResult());
+    }
+
+    @Test
+    @DisplayName("Test email lookups are served from the cache")
+    @Description("This test verifies that a repeated lookup by email in a new EntityManager does not query the database.")
+    void testEmailLookupIsCached() {
+        String email = "cached." + System.nanoTime() + "@gmail.com";
+        userService.save(new User("first", "last", email, "hash"));
+        User probe = new User();
+        probe.setEmail(email);
+        EntityManagerUtil.closeEntityManager();
+        new UserRepository<User>().findByEmail(probe);
+        EntityManagerUtil.closeEntityManager();
+        statistics.clear();
+
+        assertTrue(new UserRepository<User>().findByEmail(probe).isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
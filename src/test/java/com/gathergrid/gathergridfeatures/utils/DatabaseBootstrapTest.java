@@ -0,0 +1,125 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import com.gathergrid.gathergridfeatures.domain.Comment;
+import com.gathergrid.gathergridfeatures.domain.Event;
+import com.gathergrid.gathergridfeatures.domain.EventRating;
+import com.gathergrid.gathergridfeatures.domain.Reservation;
+import com.gathergrid.gathergridfeatures.domain.Ticket;
+import com.gathergrid.gathergridfeatures.domain.User;
+import com.gathergrid.gathergridfeatures.domain.enums.TicketType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jdk.jfr.Description;
+import org.flywaydb.core.api.exception.FlywayValidateException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseBootstrapTest {
+
+    @Test
+    @DisplayName("Test migrations produce the schema the entities expect")
+    @Description("This test verifies that migrating an empty database and then validating it against the mappings succeeds, and that a second start only validates.")
+    void testMigrateThenValidate() {
+        Map<String, Object> properties = database("migrations");
+
+        EntityManagerFactory migrated = DatabaseBootstrap.start(DatabaseBootstrap.Mode.MIGRATE, properties);
+        migrated.close();
+        EntityManagerFactory validated = DatabaseBootstrap.start(DatabaseBootstrap.Mode.VALIDATE, properties);
+        validated.close();
+    }
+
+    @Test
+    @DisplayName("Test validate mode refuses an unmigrated database")
+    @Description("This test verifies that a node started in validate mode fails instead of serving against a database whose migrations have not run.")
+    void testValidateRefusesPendingMigrations() {
+        assertThrows(FlywayValidateException.class,
+                () -> DatabaseBootstrap.start(DatabaseBootstrap.Mode.VALIDATE, database("pending")));
+    }
+
+    @Test
+    @DisplayName("Test reference data is only inserted once")
+    @Description("This test verifies that seeding an already seeded database inserts nothing, so it can run on every start.")
+    void testSeedingIsIdempotent() {
+        EntityManagerFactory emf = DatabaseBootstrap.start(DatabaseBootstrap.Mode.MIGRATE, database("seeding"));
+        try {
+            assertEquals(0, ReferenceData.seed(emf, false));
+            assertEquals(ReferenceData.CATEGORIES.size(), emf.createEntityManager()
+                    .createQuery("SELECT COUNT(c) FROM Category c", Long.class)
+                    .getSingleResult());
+        } finally {
+            emf.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Test a database created before migrations is brought up to date")
+    @Description("This test verifies that a database the entities created before migrations existed is baselined and migrated: every event gets a rating row with the totals of its comments, and new tickets, reservations and comments get ids past the existing ones.")
+    void testBaselineDatabaseIsMigrated() throws SQLException {
+        Map<String, Object> properties = database("baseline");
+        // what drop-and-create left behind: the version 1 tables and their rows, without Flyway's history
+        try (Connection connection = DriverManager.getConnection((String) properties.get("jakarta.persistence.jdbc.url"),
+                (String) properties.get("jakarta.persistence.jdbc.user"), "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/migration/V1__initial_schema.sql'");
+            statement.execute("insert into users (id, firstName, lastName, email, password) values (1, 'baseline', 'user', 'baseline.user@gmail.com', 'password')");
+            statement.execute("insert into events (id, name, date, organizer_id) values (1, 'commented', current_timestamp, 1), (2, 'quiet', current_timestamp, 1)");
+            statement.execute("insert into tickets (id, price, quantityAvailable, type, event_id) values (7, 10, 100, 'STANDARD', 1)");
+            statement.execute("insert into reservations (id, reservationDate, ticket_id, user_id) values (12, current_timestamp, 7, 1)");
+            statement.execute("insert into comments (id, rating, text, event_id, user_id) values (1, 3, 'old', 1, 1), (2, 5, 'old', 1, 1), (3, 5, 'old', 1, 1)");
+        }
+
+        EntityManagerFactory migrated = DatabaseBootstrap.start(DatabaseBootstrap.Mode.MIGRATE, properties);
+        try {
+            EntityManager em = migrated.createEntityManager();
+            EventRating commented = em.find(EventRating.class, 1L);
+            assertEquals(3, commented.getRatingCount());
+            assertEquals(13, commented.getRatingSum());
+            assertEquals(1, commented.getHistogram()[2]);
+            assertEquals(2, commented.getHistogram()[4]);
+            assertEquals(0, em.find(EventRating.class, 2L).getRatingCount());
+
+            em.getTransaction().begin();
+            User user = em.find(User.class, 1L);
+            Ticket ticket = new Ticket(20, 10, TicketType.VIP);
+            ticket.setEvent(em.find(Event.class, 1L));
+            em.persist(ticket);
+            Reservation reservation = new Reservation(LocalDateTime.now(), user, ticket);
+            em.persist(reservation);
+            Comment comment = new Comment("new", 4);
+            comment.setEvent(em.find(Event.class, 1L));
+            comment.setUser(user);
+            em.persist(comment);
+            em.getTransaction().commit();
+            em.close();
+            assertTrue(ticket.getId() > 7);
+            assertTrue(reservation.getId() > 12);
+            assertTrue(comment.getId() > 3);
+        } finally {
+            migrated.close();
+        }
+    }
+
+    // a MySQL flavoured H2 database of its own, with nothing shared with the application's factory
+    private static Map<String, Object> database(String name) {
+        Map<String, Object> properties = new HashMap<>(DatabaseBootstrap.overrides());
+        properties.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
+        // H2 reports enum columns as OTHER where MySQL says CHAR, see db/h2/afterMigrate.sql
+        properties.put("flyway.locations", "classpath:db/migration,classpath:db/h2");
+        properties.put("hibernate.hikari.poolName", "bootstrap-test-" + name);
+        properties.put("hibernate.hikari.registerMbeans", "false");
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.cache.use_query_cache", "false");
+        return properties;
+    }
+}
@@ -0,0 +1,65 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseExecutorTest {
+
+    private DatabaseExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test queued tasks are counted until a worker takes them")
+    @Description("This test verifies that tasks waiting behind a busy worker show up in the queue depth and all run once it is free.")
+    void testQueueDepth() throws InterruptedException {
+        executor = new DatabaseExecutor(1, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        executor.execute(() -> {
+            awaitQuietly(release);
+            done.countDown();
+        });
+        executor.execute(done::countDown);
+        executor.execute(done::countDown);
+
+        assertEquals(2, executor.getQueueDepth());
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Test full executor rejects immediately")
+    @Description("This test verifies that once the worker and its queue are busy, further tasks fail fast with IllegalStateException and are counted.")
+    void testFullExecutorRejects() {
+        executor = new DatabaseExecutor(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(() -> {});
+
+        assertThrows(IllegalStateException.class, () -> executor.execute(() -> {}));
+        assertEquals(1, executor.getRejectedCount());
+        release.countDown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
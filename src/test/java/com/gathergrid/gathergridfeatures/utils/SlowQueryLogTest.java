@@ -0,0 +1,66 @@
+package com.gathergrid.gathergridfeatures.utils;
+
+import com.gathergrid.gathergridfeatures.domain.Category;
+import jdk.jfr.Description;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @BeforeEach
+    void setup() {
+        SlowQueryLog.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        EntityManagerUtil.closeEntityManager();
+        SlowQueryLog.reset();
+    }
+
+    @Test
+    @DisplayName("Test calls are grouped by repository method and query")
+    @Description("This test verifies that running the same JPQL with different parameters counts towards one shape, with its rows and timing.")
+    void testCallsAreGroupedByShape() {
+        for (String name : new String[]{"Jazz", "Opera", "Rock"}) {
+            SlowQueryLog.list("CategoryRepository.findByName", EntityManagerUtil.getEntityManager()
+                    .createQuery("SELECT c FROM Category c WHERE c.name = :name", Category.class)
+                    .setParameter("name", name));
+        }
+
+        List<SlowQueryLog.QueryShape> top = SlowQueryLog.top(10, SlowQueryLog.BY_TOTAL);
+
+        assertEquals(1, top.size());
+        assertEquals("CategoryRepository.findByName", top.get(0).getOperation());
+        assertEquals("SELECT c FROM Category c WHERE c.name = :name", top.get(0).getJpql());
+        assertEquals(3, top.get(0).getCount());
+        assertEquals(0, top.get(0).getSlowCount());
+    }
+
+    @Test
+    @DisplayName("Test calls over the threshold are marked slow")
+    @Description("This test verifies that a call slower than the threshold is counted as slow and ranks first by slowest call.")
+    void testSlowCallsAreRecorded() {
+        SlowQueryLog.timed("TicketRepository.find", () -> 1);
+        SlowQueryLog.timed("EventRepository.save", () -> {
+            try {
+                Thread.sleep(SlowQueryLog.getThresholdMillis() + 20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        List<SlowQueryLog.QueryShape> top = SlowQueryLog.top(1, SlowQueryLog.BY_MAX);
+
+        assertEquals(1, top.size());
+        assertEquals("EventRepository.save", top.get(0).getOperation());
+        assertEquals(1, top.get(0).getSlowCount());
+        assertNotNull(top.get(0).getLastSlowAt());
+    }
+}
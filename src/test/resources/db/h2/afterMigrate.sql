@@ -0,0 +1,3 @@
+-- MySQL reports enum columns as CHAR, which Hibernate accepts for enums mapped as strings; H2 reports
+-- them as OTHER, so the test databases store the ticket type as the varchar Hibernate expects.
+alter table tickets alter column type set data type varchar(255);